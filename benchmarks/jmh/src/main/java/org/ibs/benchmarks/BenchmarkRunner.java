@@ -0,0 +1,43 @@
+package org.ibs.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Точка входа benchmarks.jar. Принимает обычные опции JMH (фильтр бенчмарков, -p rows=1000,
+ * -jvmArgsAppend и т.д.), но по умолчанию пишет результаты в JSON target/jmh/results.json,
+ * чтобы их можно было сравнить с прогоном другой сборки через {@link CompareResults}.
+ */
+public final class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh/results.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResult().hasValue()) {
+            File resultFile = new File(DEFAULT_RESULT_FILE);
+            File dir = resultFile.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IllegalStateException("Failed to create directory " + dir);
+            }
+            options.result(resultFile.getPath());
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,136 @@
+package org.ibs.benchmarks;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сравнение двух JSON-отчетов JMH, например прогона основной ветки и текущей сборки:
+ * <pre>
+ * java -cp target/benchmarks.jar org.ibs.benchmarks.CompareResults baseline.json results.json [порог %]
+ * </pre>
+ * Для throughput хуже - меньше, для остальных режимов (время операции) - больше. Изменение
+ * считается регрессией, если оно хуже порога (по умолчанию 10%) и больше суммы погрешностей
+ * обоих замеров. При регрессии код возврата 1, чтобы CI мог остановить сборку.
+ */
+public final class CompareResults {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        int regressions = compare(read(Path.of(args[0])), read(Path.of(args[1])), threshold, System.out);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Печатает таблицу сравнения и возвращает число регрессий.
+     */
+    static int compare(Map<String, Score> baseline, Map<String, Score> current, double threshold, PrintStream out) {
+        int regressions = 0;
+        out.println(String.format("%-70s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                out.println(String.format("%-70s %14s %14s %9s", entry.getKey(), "-", now.format(), "new"));
+                continue;
+            }
+            double change = (now.value - before.value) / before.value * 100.0;
+            boolean regression = isRegression(before, now, threshold);
+            if (regression) {
+                regressions++;
+            }
+            out.println(String.format("%-70s %14s %14s %+8.1f%%%s", entry.getKey(),
+                    before.format(), now.format(), change, regression ? "  REGRESSION" : ""));
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                out.println(String.format("%-70s %14s %14s %9s", missing, baseline.get(missing).format(), "-", "removed"));
+            }
+        }
+
+        if (regressions > 0) {
+            out.println("Regressions over " + threshold + "%: " + regressions);
+        } else {
+            out.println("No regressions over " + threshold + "%");
+        }
+        return regressions;
+    }
+
+    static boolean isRegression(Score before, Score now, double threshold) {
+        double change = (now.value - before.value) / before.value * 100.0;
+        double worse = now.higherIsBetter() ? -change : change;
+        return worse > threshold && Math.abs(now.value - before.value) > now.error + before.error;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Score> read(Path file) throws IOException {
+        List<Map<String, Object>> results;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            results = new Json().toType(reader, Json.LIST_OF_MAPS_TYPE);
+        }
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (Map<String, Object> result : results) {
+            Map<String, Object> params = (Map<String, Object>) result.get("params");
+            Map<String, Object> metric = (Map<String, Object>) result.get("primaryMetric");
+            // Параметры сортируются, чтобы ключ не зависел от порядка полей в отчете
+            String key = result.get("benchmark") + (params == null || params.isEmpty() ? "" : " " + new TreeMap<>(params));
+            scores.put(key, new Score(
+                    String.valueOf(result.get("mode")),
+                    toDouble(metric.get("score")),
+                    toDouble(metric.get("scoreError")),
+                    String.valueOf(metric.get("scoreUnit"))));
+        }
+        return scores;
+    }
+
+    // Для одиночного замера JMH пишет scoreError как "NaN"
+    private static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        double parsed = Double.parseDouble(String.valueOf(value));
+        return Double.isNaN(parsed) ? 0 : parsed;
+    }
+
+    static final class Score {
+        private final String mode;
+        private final double value;
+        private final double error;
+        private final String unit;
+
+        Score(String mode, double value, double error, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.unit = unit;
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        String format() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
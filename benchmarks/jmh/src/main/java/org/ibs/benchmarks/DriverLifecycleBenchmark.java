@@ -0,0 +1,83 @@
+package org.ibs.benchmarks;
+
+import org.ibs.config.TestConfig;
+import org.ibs.driver.DriverPool;
+import org.ibs.driver.PooledSession;
+import org.ibs.standin.RegistrationStandIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена сессии браузера на сценарий: новая сессия, которая закрывается после сценария (как при
+ * driver.pool.enabled=false), против сессии из {@link DriverPool} с очисткой перед повторной
+ * выдачей. Оба варианта открывают локальную страницу регистрации {@link RegistrationStandIn},
+ * чтобы сеть до внешнего стенда не попадала в замер.
+ *
+ * Браузер берется из настроек прогона ({@link TestConfig}), которые пул читает один раз; в форк JMH они передаются
+ * аргументами JVM, например: -jvmArgsAppend "-Dconfig.profile=local".
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverLifecycleBenchmark {
+
+    private RegistrationStandIn standIn;
+    private String registerUrl;
+
+    @Setup(Level.Trial)
+    public void startStandIn() throws IOException {
+        TestConfig config = TestConfig.get();
+        standIn = RegistrationStandIn.builder()
+                .bindAddress(config.getString("registration.standin.bind"))
+                .host(config.getString("registration.standin.host"))
+                .start();
+        registerUrl = standIn.getRegisterUrl();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        DriverPool.getInstance().shutdown();
+        standIn.close();
+    }
+
+    @Benchmark
+    public String createSession() {
+        return openRegistrationPage(false);
+    }
+
+    @Benchmark
+    public String reuseSession() {
+        return openRegistrationPage(true);
+    }
+
+    // Сессия, возвращенная как упавшая, закрывается, и следующий вызов создает новую
+    private String openRegistrationPage(boolean reuse) {
+        DriverPool pool = DriverPool.getInstance();
+        PooledSession session = pool.borrow();
+        boolean failed = true;
+        try {
+            session.getDriver().get(registerUrl);
+            String title = session.getDriver().getTitle();
+            failed = !reuse;
+            return title;
+        } finally {
+            pool.release(session, failed);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.ibs.benchmarks;
+
+import org.ibs.db.BlockIdAllocator;
+import org.ibs.db.BulkLoadResult;
+import org.ibs.db.BulkLoader;
+import org.ibs.db.EmbeddedDatabase;
+import org.ibs.db.FoodTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность вставки в FOOD: одиночный INSERT, как в шаге добавления товара,
+ * против батчей {@link BulkLoader}, и выдача следующего ключа через {@link BlockIdAllocator}
+ * против SELECT MAX(FOOD_ID) + 1. Строки вставляются в транзакцию, которая откатывается после
+ * каждой итерации, поэтому таблица не растет от итерации к итерации.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodInsertBenchmark {
+
+    static final int BATCH_ROWS = 1000;
+
+    // Ключи вставки начинаются выше исходных строк food.sql
+    private static final int FIRST_ID = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        EmbeddedDatabase database;
+        BlockIdAllocator allocator;
+
+        @Setup(Level.Trial)
+        public void create() throws SQLException {
+            database = EmbeddedDatabase.create("bench_insert");
+            database.runScript("db/food.sql");
+            allocator = new BlockIdAllocator(database, FoodTable.TABLE, FoodTable.KEY_COLUMN, 100);
+        }
+
+        @TearDown(Level.Trial)
+        public void drop() throws SQLException {
+            try (Connection conn = database.open();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Transaction {
+
+        Connection connection;
+        int nextId;
+
+        @Setup(Level.Trial)
+        public void open(Database db) throws SQLException {
+            connection = db.database.open();
+            connection.setAutoCommit(false);
+        }
+
+        @Setup(Level.Iteration)
+        public void resetIds() {
+            nextId = FIRST_ID;
+        }
+
+        @TearDown(Level.Iteration)
+        public void rollback() throws SQLException {
+            connection.rollback();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void insertSingle(Transaction tx) throws SQLException {
+        FoodTable.insert(tx.connection, tx.nextId++, "Товар", "FRUIT", 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ROWS)
+    public BulkLoadResult insertBatch(Transaction tx) throws SQLException {
+        try (BulkLoader loader = FoodTable.loader(tx.connection, BATCH_ROWS, 0)) {
+            for (int i = 0; i < BATCH_ROWS; i++) {
+                loader.add(tx.nextId++, "Товар", "FRUIT", 0);
+            }
+            return loader.finish();
+        }
+    }
+
+    @Benchmark
+    public long nextIdFromAllocator(Database db) throws SQLException {
+        return db.allocator.nextId();
+    }
+
+    @Benchmark
+    public int nextIdFromMax(Transaction tx) throws SQLException {
+        try (Statement stmt = tx.connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(FOOD_ID), 0) + 1 FROM FOOD")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
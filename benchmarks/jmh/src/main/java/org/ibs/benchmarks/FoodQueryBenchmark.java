@@ -0,0 +1,93 @@
+package org.ibs.benchmarks;
+
+import org.ibs.db.BulkLoader;
+import org.ibs.db.EmbeddedDatabase;
+import org.ibs.db.FoodItem;
+import org.ibs.db.FoodTable;
+import org.ibs.db.TableFingerprint;
+import org.ibs.db.TableSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость чтения таблицы FOOD в зависимости от ее размера: полный снимок, который строят
+ * шаги проверки до и после изменения, контрольная сумма для проверки агрегатами
+ * (db.verify.mode=aggregate) и точечный поиск по ключу.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FoodQueryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int fetchSize;
+
+    private EmbeddedDatabase database;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void createTable() throws SQLException {
+        database = EmbeddedDatabase.create("bench_query_" + rows);
+        database.runScript("db/food.sql");
+        try (Connection conn = database.open()) {
+            // Исходные строки food.sql убираются, чтобы размер таблицы точно совпадал с параметром
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM FOOD");
+            }
+            try (BulkLoader loader = FoodTable.loader(conn, 1000, 0)) {
+                for (int id = 1; id <= rows; id++) {
+                    loader.add(id, "Товар " + id, id % 2 == 0 ? "FRUIT" : "VEGETABLE", id % 3 == 0 ? 1 : 0);
+                }
+                loader.finish();
+            }
+        }
+        connection = database.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTable() throws SQLException {
+        connection.close();
+        try (Connection conn = database.open();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Benchmark
+    public TableSnapshot snapshot() throws SQLException {
+        return FoodTable.snapshot(connection, fetchSize);
+    }
+
+    @Benchmark
+    public TableFingerprint fingerprint() throws SQLException {
+        return FoodTable.fingerprint(connection);
+    }
+
+    @Benchmark
+    public FoodItem selectById() throws SQLException {
+        return FoodTable.select(connection, ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+}
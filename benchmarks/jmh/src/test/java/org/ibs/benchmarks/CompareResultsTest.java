@@ -0,0 +1,130 @@
+package org.ibs.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение отчетов JMH на файлах в формате -rf json: направление "хуже" для режимов,
+ * учет погрешности, ключи с параметрами, новые и удаленные бенчмарки.
+ */
+class CompareResultsTest {
+
+    private static final String QUERY = "org.ibs.benchmarks.FoodQueryBenchmark.snapshot";
+    private static final String INSERT = "org.ibs.benchmarks.FoodInsertBenchmark.insertBatch";
+
+    @TempDir
+    Path dir;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void slowerAverageTimeIsRegression() throws IOException {
+        int regressions = compare(
+                result(QUERY, "avgt", "", 10.0, 0.2, "ms/op"),
+                result(QUERY, "avgt", "", 12.0, 0.2, "ms/op"));
+
+        assertEquals(1, regressions);
+        assertTrue(output().contains("REGRESSION"), output());
+    }
+
+    @Test
+    void fasterAverageTimeIsNotRegression() throws IOException {
+        assertEquals(0, compare(
+                result(QUERY, "avgt", "", 10.0, 0.2, "ms/op"),
+                result(QUERY, "avgt", "", 5.0, 0.2, "ms/op")));
+    }
+
+    @Test
+    void lowerThroughputIsRegression() throws IOException {
+        assertEquals(1, compare(
+                result(INSERT, "thrpt", "", 1000.0, 10.0, "ops/s"),
+                result(INSERT, "thrpt", "", 800.0, 10.0, "ops/s")));
+    }
+
+    @Test
+    void higherThroughputIsNotRegression() throws IOException {
+        assertEquals(0, compare(
+                result(INSERT, "thrpt", "", 1000.0, 10.0, "ops/s"),
+                result(INSERT, "thrpt", "", 1500.0, 10.0, "ops/s")));
+    }
+
+    @Test
+    void changeWithinErrorsIsNotRegression() throws IOException {
+        // +20% хуже порога, но разница 2.0 меньше суммы погрешностей 1.5 + 1.5
+        assertEquals(0, compare(
+                result(QUERY, "avgt", "", 10.0, 1.5, "ms/op"),
+                result(QUERY, "avgt", "", 12.0, 1.5, "ms/op")));
+    }
+
+    @Test
+    void changeBelowThresholdIsNotRegression() throws IOException {
+        assertEquals(0, compare(
+                result(QUERY, "avgt", "", 10.0, 0.01, "ms/op"),
+                result(QUERY, "avgt", "", 10.5, 0.01, "ms/op")));
+    }
+
+    @Test
+    void singleShotNanErrorCountsAsZero() throws IOException {
+        int regressions = compare(
+                result(QUERY, "ss", "", 10.0, Double.NaN, "ms/op"),
+                result(QUERY, "ss", "", 12.0, Double.NaN, "ms/op"));
+
+        assertEquals(1, regressions);
+    }
+
+    @Test
+    void paramsAreMatchedRegardlessOfOrder() throws IOException {
+        Map<String, CompareResults.Score> baseline = CompareResults.read(write("baseline.json",
+                result(QUERY, "avgt", "\"rows\":\"100\",\"mode\":\"fast\"", 10.0, 0.1, "ms/op")));
+        Map<String, CompareResults.Score> current = CompareResults.read(write("current.json",
+                result(QUERY, "avgt", "\"mode\":\"fast\",\"rows\":\"100\"", 10.0, 0.1, "ms/op")));
+
+        assertEquals(baseline.keySet(), current.keySet());
+        assertEquals(QUERY + " {mode=fast, rows=100}", baseline.keySet().iterator().next());
+    }
+
+    @Test
+    void differentParamsAreSeparateBenchmarks() throws IOException {
+        int regressions = compare(
+                result(QUERY, "avgt", "\"rows\":\"100\"", 10.0, 0.1, "ms/op"),
+                result(QUERY, "avgt", "\"rows\":\"100000\"", 50.0, 0.1, "ms/op"));
+
+        assertEquals(0, regressions);
+        assertTrue(output().contains("new"), output());
+        assertTrue(output().contains("removed"), output());
+    }
+
+    private int compare(String baseline, String current) throws IOException {
+        Map<String, CompareResults.Score> before = CompareResults.read(write("baseline.json", baseline));
+        Map<String, CompareResults.Score> now = CompareResults.read(write("current.json", current));
+        return CompareResults.compare(before, now, 10.0, new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    private String output() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private Path write(String name, String json) throws IOException {
+        return Files.writeString(dir.resolve(name), json, StandardCharsets.UTF_8);
+    }
+
+    // Фрагмент отчета JMH; для одиночного замера scoreError записывается строкой "NaN"
+    private static String result(String benchmark, String mode, String params, double score, double error, String unit) {
+        return "[{\"benchmark\":\"" + benchmark + "\",\"mode\":\"" + mode + "\",\"threads\":1,\"forks\":1,"
+                + (params.isEmpty() ? "" : "\"params\":{" + params + "},")
+                + "\"primaryMetric\":{\"score\":" + score + ",\"scoreError\":"
+                + (Double.isNaN(error) ? "\"NaN\"" : String.valueOf(error))
+                + ",\"scoreConfidence\":[0,0],\"scoreUnit\":\"" + unit + "\",\"rawData\":[[" + score + "]]}}]";
+    }
+}
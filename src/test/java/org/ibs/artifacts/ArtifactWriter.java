@@ -0,0 +1,238 @@
+package org.ibs.artifacts;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.util.PropertiesUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Фоновая запись вложений Allure для упавших сценариев. Вложение регистрируется в результате
+ * сценария сразу, в потоке сценария (Allure привязывает его к текущему шагу), а сжатие и запись
+ * файла выполняются одним фоновым потоком: скриншоты перекодируются в JPEG, текст больше порога
+ * сжимается gzip, повторяющееся содержимое (одна и та же страница в нескольких сценариях)
+ * записывается один раз, остальные вложения ссылаются на него жесткой ссылкой.
+ * Очередь ограничена: при переполнении вложение записывается как есть в потоке сценария.
+ */
+public final class ArtifactWriter {
+
+    private final AllureLifecycle lifecycle;
+    private final Path resultsDirectory;
+    private final Semaphore capacity;
+    private final ExecutorService executor;
+    private final boolean jpegScreenshots;
+    private final float jpegQuality;
+    private final int gzipThresholdBytes;
+
+    private final Map<String, Path> written = new ConcurrentHashMap<>();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong inline = new AtomicLong();
+
+    private ArtifactWriter(Builder builder) {
+        this.lifecycle = Allure.getLifecycle();
+        this.resultsDirectory = Paths.get(PropertiesUtils.loadAllureProperties()
+                .getProperty("allure.results.directory", "allure-results"));
+        this.capacity = new Semaphore(builder.queueSize);
+        this.jpegScreenshots = builder.jpegScreenshots;
+        this.jpegQuality = builder.jpegQuality;
+        this.gzipThresholdBytes = builder.gzipThresholdBytes;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "artifact-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Скриншот в PNG, как его отдает WebDriver.
+     */
+    public void screenshot(String name, byte[] png) {
+        if (jpegScreenshots) {
+            submit(name, png, "image/png", "png", "image/jpeg", "jpg", this::toJpeg);
+        } else {
+            submit(name, png, "image/png", "png", "image/png", "png", bytes -> bytes);
+        }
+    }
+
+    public void text(String name, String mimeType, String extension, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= gzipThresholdBytes) {
+            submit(name + " (gzip)", bytes, mimeType, extension, "application/gzip", extension + ".gz", ArtifactWriter::gzip);
+        } else {
+            submit(name, bytes, mimeType, extension, mimeType, extension, raw -> raw);
+        }
+    }
+
+    /**
+     * Дожидается записи всех принятых вложений; вызывается после прогона.
+     */
+    public boolean awaitCompletion(Duration timeout) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public String summary() {
+        return String.format("Вложения: исходно %.1f КБ, записано %.1f КБ, повторов %d, записано в потоке сценария %d",
+                bytesIn.get() / 1024.0, bytesOut.get() / 1024.0, deduplicated.get(), inline.get());
+    }
+
+    private void submit(String name, byte[] content, String rawType, String rawExtension,
+                        String encodedType, String encodedExtension, Encoder encoder) {
+        bytesIn.addAndGet(content.length);
+        if (!capacity.tryAcquire()) {
+            // Очередь заполнена: не теряем вложение, но и не ждем сжатия
+            inline.incrementAndGet();
+            bytesOut.addAndGet(content.length);
+            lifecycle.addAttachment(name, rawType, rawExtension, content);
+            return;
+        }
+        String source;
+        try {
+            source = lifecycle.prepareAttachment(name, encodedType, encodedExtension);
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+        executor.execute(() -> {
+            try {
+                write(source, encodedType + ":" + sha256(content), content, encoder);
+            } catch (Exception e) {
+                System.err.println("Failed to write attachment '" + name + "': " + e.getMessage());
+            } finally {
+                capacity.release();
+            }
+        });
+    }
+
+    private void write(String source, String key, byte[] content, Encoder encoder) throws IOException {
+        Path target = resultsDirectory.resolve(source);
+        Path original = written.get(key);
+        if (original != null && Files.exists(original)) {
+            try {
+                Files.createLink(target, original);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(original, target);
+            }
+            deduplicated.incrementAndGet();
+            return;
+        }
+        byte[] encoded = encoder.encode(content);
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(encoded));
+        bytesOut.addAndGet(encoded.length);
+        written.put(key, target);
+    }
+
+    private byte[] toJpeg(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Screenshot is not a readable image");
+        }
+        // JPEG не поддерживает прозрачность
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.createGraphics().drawImage(image, 0, 0, Color.WHITE, null);
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode(byte[] content) throws IOException;
+    }
+
+    public static final class Builder {
+        private int queueSize = 32;
+        private boolean jpegScreenshots = true;
+        private float jpegQuality = 0.7f;
+        private int gzipThresholdBytes = 256 * 1024;
+
+        private Builder() {
+        }
+
+        public Builder queueSize(int queueSize) {
+            this.queueSize = queueSize;
+            return this;
+        }
+
+        public Builder jpegScreenshots(boolean jpegScreenshots, float quality) {
+            this.jpegScreenshots = jpegScreenshots;
+            this.jpegQuality = quality;
+            return this;
+        }
+
+        public Builder gzipThresholdBytes(int gzipThresholdBytes) {
+            this.gzipThresholdBytes = gzipThresholdBytes;
+            return this;
+        }
+
+        public ArtifactWriter build() {
+            if (queueSize <= 0) {
+                throw new IllegalArgumentException("Invalid artifact queue size: " + queueSize);
+            }
+            return new ArtifactWriter(this);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package org.ibs.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Настройки прогона, собранные один раз на JVM и общие для всех классов шагов и потоков.
+ * Источники по возрастанию приоритета:
+ * <ol>
+ *     <li>значения по умолчанию ниже;</li>
+ *     <li>config.properties;</li>
+ *     <li>config-&lt;profile&gt;.properties, профиль задается -Dconfig.profile или CONFIG_PROFILE;</li>
+ *     <li>переменные окружения: для известного ключа db.pool.max.size - DB_POOL_MAX_SIZE,
+ *     а также браузер из Jenkins (BROWSER, TEST_BROWSER, SELENOID_BROWSER) для selenoid.browser;</li>
+ *     <li>системные свойства -D для ключей известных групп (db.*, selenoid.*, driver.* и т.д.).</li>
+ * </ol>
+ * Каждый ключ и его значение по умолчанию перечислены в {@link #defaults()}, поэтому аксессоры
+ * не принимают собственных значений по умолчанию: запрос неизвестного ключа - ошибка, а не
+ * молчаливое значение, расходящееся с config.properties. Объект неизменяем, {@link #asMap()}
+ * отдает неизменяемое представление значений.
+ */
+public final class TestConfig {
+
+    private static final String CONFIG_FILE = "config.properties";
+
+    private static final Map<String, String> DEFAULTS = defaults();
+
+    private static volatile TestConfig instance;
+
+    private final Map<String, String> values;
+    private final String profile;
+    private final List<String> sources;
+
+    private TestConfig(Map<String, String> values, String profile, List<String> sources) {
+        this.values = Collections.unmodifiableMap(values);
+        this.profile = profile;
+        this.sources = Collections.unmodifiableList(sources);
+    }
+
+    public static TestConfig get() {
+        TestConfig config = instance;
+        if (config == null) {
+            synchronized (TestConfig.class) {
+                config = instance;
+                if (config == null) {
+                    config = resolve();
+                    instance = config;
+                    System.out.println("Конфигурация: профиль " + (config.profile != null ? config.profile : "-")
+                            + ", источники " + config.sources);
+                }
+            }
+        }
+        return config;
+    }
+
+    private static TestConfig resolve() {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        List<String> sources = new ArrayList<>();
+        sources.add("defaults");
+        if (loadResource(CONFIG_FILE, values)) {
+            sources.add(CONFIG_FILE);
+        }
+
+        String profile = firstNonBlank(System.getProperty("config.profile"), System.getenv("CONFIG_PROFILE"));
+        if (profile != null) {
+            String profileFile = "config-" + profile + ".properties";
+            if (!loadResource(profileFile, values)) {
+                throw new IllegalStateException("Config profile file not found on classpath: " + profileFile);
+            }
+            sources.add(profileFile);
+        }
+
+        int fromEnvironment = 0;
+        for (String key : new ArrayList<>(values.keySet())) {
+            String value = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_'));
+            if (value != null && !value.isBlank()) {
+                values.put(key, value.trim());
+                fromEnvironment++;
+            }
+        }
+        String jenkinsBrowser = jenkinsBrowser();
+        if (jenkinsBrowser != null) {
+            values.put("selenoid.browser", jenkinsBrowser);
+            fromEnvironment++;
+        }
+        if (fromEnvironment > 0) {
+            sources.add("env (" + fromEnvironment + ")");
+        }
+
+        Set<String> groups = new TreeSet<>();
+        for (String key : values.keySet()) {
+            groups.add(group(key));
+        }
+        int fromSystem = 0;
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.indexOf('.') > 0 && groups.contains(group(name))) {
+                values.put(name, System.getProperty(name));
+                fromSystem++;
+            }
+        }
+        if (fromSystem > 0) {
+            sources.add("-D (" + fromSystem + ")");
+        }
+        return new TestConfig(values, profile, sources);
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getString(String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalStateException("Missing config value: " + key);
+        }
+        return value;
+    }
+
+    public int getInt(String key) {
+        return parse(key, Integer::parseInt);
+    }
+
+    public long getLong(String key) {
+        return parse(key, Long::parseLong);
+    }
+
+    public double getDouble(String key) {
+        return parse(key, Double::parseDouble);
+    }
+
+    public boolean getBoolean(String key) {
+        return parse(key, value -> {
+            if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                throw new IllegalArgumentException("expected true or false");
+            }
+            return Boolean.parseBoolean(value);
+        });
+    }
+
+    public Duration getSeconds(String key) {
+        return Duration.ofSeconds(getLong(key));
+    }
+
+    public Duration getMillis(String key) {
+        return Duration.ofMillis(getLong(key));
+    }
+
+    public boolean is(String key, String expected) {
+        return expected.equalsIgnoreCase(values.get(key));
+    }
+
+    // Основные режимы прогона
+
+    public boolean isSelenoid() {
+        return is("run.mode", "selenoid");
+    }
+
+    public boolean isEmbeddedDatabase() {
+        return is("db.mode", "embedded");
+    }
+
+    public boolean isRegistrationStandIn() {
+        return is("registration.target", "standin");
+    }
+
+    public String getDbUrl() {
+        return getString("db.url");
+    }
+
+    public String getDbUser() {
+        return getString("db.user");
+    }
+
+    public String getDbPassword() {
+        return getString("db.password");
+    }
+
+    /**
+     * Все значения; изменить их через возвращаемую карту нельзя.
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    private <T> T parse(String key, Function<String, T> parser) {
+        String value = getString(key);
+        try {
+            return parser.apply(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid config value " + key + "=" + value + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean loadResource(String name, Map<String, String> values) {
+        try (InputStream input = TestConfig.class.getClassLoader().getResourceAsStream(name)) {
+            if (input == null) {
+                return false;
+            }
+            Properties file = new Properties();
+            file.load(input);
+            for (String key : file.stringPropertyNames()) {
+                values.put(key, file.getProperty(key));
+            }
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String jenkinsBrowser() {
+        // Порядок как в Jenkins-джобах: BROWSER, -Dbrowser, затем альтернативные имена
+        String browser = firstNonBlank(System.getenv("BROWSER"), System.getProperty("browser"));
+        for (String param : new String[]{"BROWSER", "TEST_BROWSER", "SELENOID_BROWSER"}) {
+            browser = firstNonBlank(browser, System.getenv(param), System.getProperty(param));
+        }
+        return browser != null ? browser.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+
+    private static String group(String key) {
+        int dot = key.indexOf('.');
+        return dot > 0 ? key.substring(0, dot) : key;
+    }
+
+    /**
+     * Все ключи настроек со значениями по умолчанию, совпадающими с config.properties.
+     */
+    private static Map<String, String> defaults() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("run.mode", "selenoid");
+        defaults.put("selenoid.url", "http://applineselenoid.fvds.ru:4444/wd/hub");
+        defaults.put("selenoid.browser", "chrome");
+        defaults.put("browser.version", "latest");
+        defaults.put("enable.vnc", "true");
+        defaults.put("enable.video", "false");
+        defaults.put("local.browser", "chrome");
+        defaults.put("local.headless", "true");
+
+        defaults.put("driver.pool.enabled", "true");
+        defaults.put("driver.pool.size", "4");
+        defaults.put("driver.pool.max.uses", "20");
+        defaults.put("driver.prewarm.enabled", "true");
+        defaults.put("driver.prewarm.count", "4");
+        defaults.put("driver.instrument.enabled", "false");
+        defaults.put("driver.instrument.top", "10");
+        defaults.put("driver.network.profile.enabled", "false");
+        defaults.put("driver.network.block.types", "image,font,media");
+        defaults.put("driver.network.block.urls",
+                "*google-analytics.com*,*googletagmanager.com*,*mc.yandex.ru*,*doubleclick.net*");
+        defaults.put("form.fill.mode", "typing");
+
+        defaults.put("db.verify.mode", "aggregate");
+        defaults.put("db.fetch.size", "1000");
+        defaults.put("db.print.max.rows", "50");
+        defaults.put("db.bulk.batch.size", "1000");
+        defaults.put("db.bulk.commit.interval", "0");
+        defaults.put("db.mode", "remote");
+        defaults.put("db.url", "jdbc:h2:tcp://qualit.applineselenoid.fvds.ru/mem:testdb");
+        defaults.put("db.user", "user");
+        defaults.put("db.password", "pass");
+        defaults.put("db.embedded.script", "db/food.sql");
+        defaults.put("db.embedded.restore", "worker");
+        defaults.put("db.pool.enabled", "true");
+        defaults.put("db.pool.min.size", "1");
+        defaults.put("db.pool.max.size", "8");
+        defaults.put("db.pool.validation.timeout.seconds", "2");
+        defaults.put("db.pool.idle.timeout.seconds", "300");
+        defaults.put("db.pool.leak.threshold.seconds", "60");
+        defaults.put("db.pool.borrow.timeout.seconds", "30");
+        defaults.put("db.load.pool.size", "32");
+
+        defaults.put("registration.target", "remote");
+        defaults.put("registration.url", "http://217.74.37.176/?route=account/register&language=ru-ru");
+        defaults.put("registration.standin.port", "0");
+        defaults.put("registration.standin.threads", "32");
+        defaults.put("registration.standin.bind", "127.0.0.1");
+        defaults.put("registration.standin.host", "127.0.0.1");
+        defaults.put("registration.standin.latency.ms", "0");
+        defaults.put("registration.standin.latency.jitter.ms", "0");
+        defaults.put("registration.standin.reject.digits.in.name", "true");
+        defaults.put("registration.standin.password.min.length", "4");
+        defaults.put("registration.standin.unique.emails", "true");
+        defaults.put("http.load.timeout.seconds", "30");
+        defaults.put("http.load.allow.remote", "false");
+
+        defaults.put("preflight.enabled", "true");
+        defaults.put("preflight.timeout.ms", "3000");
+        defaults.put("preflight.breaker.threshold", "2");
+        defaults.put("preflight.breaker.open.seconds", "60");
+
+        defaults.put("artifacts.enabled", "true");
+        defaults.put("artifacts.queue.size", "32");
+        defaults.put("artifacts.screenshot.format", "jpeg");
+        defaults.put("artifacts.screenshot.quality", "0.7");
+        defaults.put("artifacts.gzip.threshold.kb", "256");
+        defaults.put("artifacts.flush.timeout.seconds", "30");
+        return defaults;
+    }
+}
@@ -0,0 +1,132 @@
+package org.ibs.db;
+
+import org.h2.api.ErrorCode;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Выдача уникальных значений первичного ключа без SELECT MAX(...) + 1 на каждую вставку.
+ * Каждый поток резервирует в последовательности БД блок из blockSize идентификаторов
+ * и раздает его из памяти. Значения последовательности H2 не откатываются вместе с
+ * транзакцией, поэтому блоки не пересекаются между потоками, JVM и агентами.
+ *
+ * Последовательность создается при первом резервировании (отдельным соединением, чтобы DDL
+ * не фиксировал транзакцию сценария) и стартует после текущего максимального ключа таблицы.
+ * Если БД была восстановлена из снимка и последовательность пропала, она создается заново.
+ */
+public class BlockIdAllocator {
+
+    private final ConnectionFactory connectionFactory;
+    private final String table;
+    private final String idColumn;
+    private final String sequence;
+    private final int blockSize;
+
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[]{0, 0});
+
+    public BlockIdAllocator(ConnectionFactory connectionFactory, String table, String idColumn, int blockSize) {
+        this.connectionFactory = connectionFactory;
+        this.table = table;
+        this.idColumn = idColumn;
+        this.sequence = table + "_ID_BLOCK_SEQ";
+        this.blockSize = blockSize;
+    }
+
+    public long nextId() throws SQLException {
+        long[] current = block.get();
+        if (current[0] >= current[1]) {
+            current[0] = reserveBlock();
+            current[1] = current[0] + blockSize;
+        }
+        return current[0]++;
+    }
+
+    /**
+     * count идентификаторов для массовой вставки: остаток текущего блока плюс недостающие блоки,
+     * зарезервированные одним запросом.
+     */
+    public long[] nextIds(int count) throws SQLException {
+        long[] ids = new long[count];
+        long[] current = block.get();
+        int filled = 0;
+        while (filled < count && current[0] < current[1]) {
+            ids[filled++] = current[0]++;
+        }
+        if (filled == count) {
+            return ids;
+        }
+        int blocksNeeded = (count - filled + blockSize - 1) / blockSize;
+        long[] starts = reserveBlocks(blocksNeeded);
+        for (long start : starts) {
+            current[0] = start;
+            current[1] = start + blockSize;
+            while (filled < count && current[0] < current[1]) {
+                ids[filled++] = current[0]++;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Сбрасывает блок текущего потока, например после восстановления БД из снимка.
+     */
+    public void discardBlock() {
+        block.remove();
+    }
+
+    private long reserveBlock() throws SQLException {
+        return reserveBlocks(1)[0];
+    }
+
+    private long[] reserveBlocks(int blocks) throws SQLException {
+        try (Connection connection = connectionFactory.open();
+             Statement stmt = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            try {
+                return nextValues(stmt, blocks);
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ErrorCode.SEQUENCE_NOT_FOUND_1) {
+                    throw e;
+                }
+                try {
+                    createSequence(stmt);
+                } catch (SQLException created) {
+                    // Одновременный CREATE SEQUENCE IF NOT EXISTS из другого соединения H2 отклоняет
+                    // с "object already exists" - последовательность уже есть, можно брать значения
+                    try {
+                        return nextValues(stmt, blocks);
+                    } catch (SQLException retry) {
+                        retry.addSuppressed(created);
+                        throw retry;
+                    }
+                }
+                return nextValues(stmt, blocks);
+            }
+        }
+    }
+
+    private long[] nextValues(Statement stmt, int blocks) throws SQLException {
+        long[] starts = new long[blocks];
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, " + blocks + ")")) {
+            for (int i = 0; i < blocks && rs.next(); i++) {
+                starts[i] = rs.getLong(1);
+            }
+        }
+        return starts;
+    }
+
+    private void createSequence(Statement stmt) throws SQLException {
+        long start = 1;
+        try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table)) {
+            if (rs.next()) {
+                start = rs.getLong(1);
+            }
+        }
+        stmt.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                + " START WITH " + start + " INCREMENT BY " + blockSize);
+    }
+}
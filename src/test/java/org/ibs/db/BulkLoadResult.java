@@ -0,0 +1,40 @@
+package org.ibs.db;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итог работы {@link BulkLoader}. Время хранится в наносекундах, чтобы скорость загрузки
+ * нескольких строк не округлялась до нуля миллисекунд.
+ */
+public final class BulkLoadResult {
+
+    private final long rows;
+    private final long batches;
+    private final long nanos;
+
+    BulkLoadResult(long rows, long batches, long nanos) {
+        this.rows = rows;
+        this.batches = batches;
+        this.nanos = nanos;
+    }
+
+    public long getRows() { return rows; }
+    public long getBatches() { return batches; }
+    public long getNanos() { return nanos; }
+    public long getMillis() { return TimeUnit.NANOSECONDS.toMillis(nanos); }
+
+    /**
+     * Строк в секунду; NaN, если время загрузки не удалось измерить.
+     */
+    public double getRowsPerSecond() {
+        return nanos <= 0 ? Double.NaN : rows * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        double rowsPerSecond = getRowsPerSecond();
+        return String.format("BulkLoadResult{rows=%d, batches=%d, time=%.3f ms, %s rows/s}",
+                rows, batches, nanos / 1_000_000.0,
+                Double.isNaN(rowsPerSecond) ? "n/a" : String.format("%.0f", rowsPerSecond));
+    }
+}
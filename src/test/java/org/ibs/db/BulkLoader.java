@@ -0,0 +1,84 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Массовая вставка строк одним подготовленным выражением с JDBC-батчами.
+ * batchSize - сколько строк отправляется в БД за один executeBatch();
+ * commitInterval - через сколько строк фиксировать транзакцию (0 - не фиксировать, строки
+ * остаются в транзакции вызывающего кода, например откатываемой транзакции сценария).
+ *
+ * commitInterval &gt; 0 допустим только на соединении, транзакцией которого владеет вызывающий код.
+ * На соединении {@link ScenarioTransaction} commit() навсегда записывает строки в общую таблицу
+ * и снимает точку сохранения сценария, и откат после сценария их уже не удалит.
+ */
+public class BulkLoader implements AutoCloseable {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private final int commitInterval;
+
+    private final long startNanos = System.nanoTime();
+    private long rows;
+    private long batches;
+    private int pendingInBatch;
+    private long sinceCommit;
+
+    public BulkLoader(Connection connection, String insertSql, int batchSize, int commitInterval) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.connection = connection;
+        this.statement = connection.prepareStatement(insertSql);
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        rows++;
+        pendingInBatch++;
+        sinceCommit++;
+
+        if (pendingInBatch >= batchSize) {
+            flush();
+        }
+        if (commitInterval > 0 && sinceCommit >= commitInterval) {
+            flush();
+            connection.commit();
+            sinceCommit = 0;
+        }
+    }
+
+    /**
+     * Отправляет оставшиеся строки и возвращает статистику загрузки.
+     */
+    public BulkLoadResult finish() throws SQLException {
+        flush();
+        if (commitInterval > 0 && sinceCommit > 0) {
+            connection.commit();
+            sinceCommit = 0;
+        }
+        return new BulkLoadResult(rows, batches, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+
+    private void flush() throws SQLException {
+        if (pendingInBatch == 0) {
+            return;
+        }
+        statement.executeBatch();
+        batches++;
+        pendingInBatch = 0;
+    }
+}
@@ -0,0 +1,13 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Источник новых соединений с тестовой БД.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    Connection open() throws SQLException;
+}
@@ -0,0 +1,308 @@
+package org.ibs.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Небольшой пул JDBC-соединений на время жизни набора тестов.
+ * Соединение проверяется через isValid() при выдаче, close() на выданном соединении возвращает
+ * его в пул (с откатом незафиксированной транзакции и восстановлением autoCommit).
+ * Фоновая задача держит не меньше minSize открытых соединений, закрывает соединения,
+ * простаивающие дольше idleTimeout (сверх minSize), и печатает место выдачи соединений, не возвращенных за leakThreshold.
+ */
+public final class ConnectionPool implements ConnectionFactory, AutoCloseable {
+
+    private final ConnectionFactory physicalConnections;
+    private final int minSize;
+    private final int validationTimeoutSeconds;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long borrowTimeoutMillis;
+
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private ConnectionPool(Builder builder) {
+        this.physicalConnections = builder.physicalConnections;
+        this.minSize = builder.minSize;
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.leakThresholdMillis = builder.leakThresholdMillis;
+        this.borrowTimeoutMillis = builder.borrowTimeoutMillis;
+        this.permits = new Semaphore(builder.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeeping, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static Builder builder(ConnectionFactory physicalConnections) {
+        return new Builder(physicalConnections);
+    }
+
+    @Override
+    public Connection open() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a pooled connection, borrowed: " + borrowed.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isValid(pooled.physical)) {
+                    return pooled.borrow();
+                }
+                closePhysical(pooled.physical);
+            }
+            return new PooledConnection(physicalConnections.open()).borrow();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getBorrowedCount() {
+        return borrowed.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysical(pooled.physical);
+        }
+        for (PooledConnection leaked : borrowed) {
+            System.err.println("Connection was not returned before pool shutdown");
+            leaked.borrowSite.printStackTrace();
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (closed || !reset(pooled.physical)) {
+                closePhysical(pooled.physical);
+            } else {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Pooled connection reset failed, connection will be closed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void closePhysical(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error during connection close: " + e.getMessage());
+        }
+    }
+
+    private void housekeeping() {
+        long now = System.currentTimeMillis();
+
+        // Самые давно неиспользуемые соединения лежат в конце очереди
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && idle.size() > minSize) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastUsedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                closePhysical(pooled.physical);
+            }
+        }
+
+        while (!closed && idle.size() + borrowed.size() < minSize) {
+            try {
+                idle.offerLast(new PooledConnection(physicalConnections.open()));
+            } catch (SQLException e) {
+                System.out.println("Failed to open pooled connection: " + e.getMessage());
+                break;
+            }
+        }
+
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                System.err.println("Possible connection leak: connection borrowed "
+                        + (now - pooled.borrowedAt) + " ms ago and not returned");
+                pooled.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection borrow() {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = new Throwable("Connection borrowed here");
+            leakReported = false;
+            borrowed.add(this);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Выданное соединение: после close() возвращает физическое соединение в пул и
+     * больше не может им пользоваться.
+     */
+    private final class Handle implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (returned ? ", returned" : "") + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final ConnectionFactory physicalConnections;
+        private int minSize = 1;
+        private int maxSize = 8;
+        private int validationTimeoutSeconds = 2;
+        private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(5);
+        private long leakThresholdMillis = TimeUnit.MINUTES.toMillis(1);
+        private long borrowTimeoutMillis = TimeUnit.SECONDS.toMillis(30);
+
+        private Builder(ConnectionFactory physicalConnections) {
+            this.physicalConnections = physicalConnections;
+        }
+
+        public Builder minSize(int minSize) {
+            this.minSize = minSize;
+            return this;
+        }
+
+        public Builder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder validationTimeoutSeconds(int seconds) {
+            this.validationTimeoutSeconds = seconds;
+            return this;
+        }
+
+        public Builder idleTimeoutSeconds(long seconds) {
+            this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(seconds);
+            return this;
+        }
+
+        public Builder leakThresholdSeconds(long seconds) {
+            this.leakThresholdMillis = TimeUnit.SECONDS.toMillis(seconds);
+            return this;
+        }
+
+        public Builder borrowTimeoutSeconds(long seconds) {
+            this.borrowTimeoutMillis = TimeUnit.SECONDS.toMillis(seconds);
+            return this;
+        }
+
+        public ConnectionPool build() {
+            if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+            }
+            return new ConnectionPool(this);
+        }
+    }
+}
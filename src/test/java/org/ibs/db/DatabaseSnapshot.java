@@ -0,0 +1,26 @@
+package org.ibs.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Схема и данные встроенной БД в виде SQL-выражений, полученных командой H2 SCRIPT.
+ * Хранится в памяти и используется для быстрого восстановления БД (см. {@link EmbeddedDatabase#restore}).
+ */
+public final class DatabaseSnapshot {
+
+    private final List<String> statements;
+
+    DatabaseSnapshot(List<String> statements) {
+        this.statements = Collections.unmodifiableList(new ArrayList<>(statements));
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+}
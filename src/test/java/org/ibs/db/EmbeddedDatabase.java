@@ -0,0 +1,72 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * H2 в памяти текущей JVM. БД живет, пока жива JVM (DB_CLOSE_DELAY=-1), поэтому соединения
+ * можно свободно открывать и закрывать между сценариями.
+ */
+public final class EmbeddedDatabase implements ConnectionFactory {
+
+    private final String url;
+
+    private EmbeddedDatabase(String url) {
+        this.url = url;
+    }
+
+    public static EmbeddedDatabase create(String name) {
+        return new EmbeddedDatabase("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public Connection open() throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    /**
+     * Выполняет SQL-скрипт из classpath, например "db/food.sql".
+     */
+    public void runScript(String classpathResource) throws SQLException {
+        try (Connection connection = open();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("RUNSCRIPT FROM 'classpath:/" + classpathResource + "' CHARSET 'UTF-8'");
+        }
+    }
+
+    public DatabaseSnapshot snapshot() throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Connection connection = open();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+            while (rs.next()) {
+                statements.add(rs.getString(1));
+            }
+        }
+        return new DatabaseSnapshot(statements);
+    }
+
+    /**
+     * Удаляет все объекты БД и воспроизводит снимок. Для небольших схем с исходными
+     * данными занимает единицы миллисекунд.
+     */
+    public void restore(DatabaseSnapshot snapshot) throws SQLException {
+        try (Connection connection = open();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            for (String statement : snapshot.getStatements()) {
+                stmt.addBatch(statement);
+            }
+            stmt.executeBatch();
+        }
+    }
+}
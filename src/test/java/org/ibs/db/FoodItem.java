@@ -0,0 +1,50 @@
+package org.ibs.db;
+
+import java.util.Objects;
+
+/**
+ * Строка таблицы FOOD.
+ */
+public final class FoodItem {
+
+    private final int foodId;
+    private final String foodName;
+    private final String foodType;
+    private final int foodExotic;
+
+    public FoodItem(int foodId, String foodName, String foodType, int foodExotic) {
+        this.foodId = foodId;
+        this.foodName = foodName;
+        this.foodType = foodType;
+        this.foodExotic = foodExotic;
+    }
+
+    public int getFoodId() { return foodId; }
+    public String getFoodName() { return foodName; }
+    public String getFoodType() { return foodType; }
+    public int getFoodExotic() { return foodExotic; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FoodItem)) {
+            return false;
+        }
+        FoodItem other = (FoodItem) o;
+        return foodId == other.foodId && foodExotic == other.foodExotic
+                && Objects.equals(foodName, other.foodName) && Objects.equals(foodType, other.foodType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(foodId, foodName, foodType, foodExotic);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FoodItem{id=%d, name='%s', type='%s', exotic=%d}",
+                foodId, foodName, foodType, foodExotic);
+    }
+}
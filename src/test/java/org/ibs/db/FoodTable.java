@@ -0,0 +1,109 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL операций с таблицей FOOD, общий для функциональных сценариев, нагрузочного прогона
+ * и бенчмарков (модуль benchmarks), чтобы все они измеряли одни и те же запросы.
+ */
+public final class FoodTable {
+
+    public static final String TABLE = "FOOD";
+    public static final String KEY_COLUMN = "FOOD_ID";
+    public static final String[] COLUMNS = {"FOOD_ID", "FOOD_NAME", "FOOD_TYPE", "FOOD_EXOTIC"};
+    public static final String INSERT_SQL = "INSERT INTO FOOD (FOOD_ID, FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC) VALUES (?, ?, ?, ?)";
+
+    private static final int SELECT_KEYS_PER_QUERY = 10_000;
+
+    private FoodTable() {
+    }
+
+    public static void insert(Connection connection, int id, String name, String type, int exotic) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(INSERT_SQL)) {
+            pstmt.setInt(1, id);
+            pstmt.setString(2, name);
+            pstmt.setString(3, type);
+            pstmt.setInt(4, exotic);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Товар по ключу или null, если его нет.
+     */
+    public static FoodItem select(Connection connection, int id) throws SQLException {
+        String sql = "SELECT FOOD_ID, FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC FROM FOOD WHERE FOOD_ID = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new FoodItem(
+                        rs.getInt("FOOD_ID"),
+                        rs.getString("FOOD_NAME"),
+                        rs.getString("FOOD_TYPE"),
+                        rs.getInt("FOOD_EXOTIC")
+                );
+            }
+        }
+    }
+
+    /**
+     * Товары с указанными ключами в порядке FOOD_ID; ключи передаются массивом, а не диапазоном,
+     * поэтому в выборку не попадают чужие строки между ними. ids должны быть отсортированы.
+     */
+    public static List<FoodItem> select(Connection connection, int[] ids, int fetchSize) throws SQLException {
+        String sql = "SELECT FOOD_ID, FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC FROM FOOD WHERE FOOD_ID = ANY(?) ORDER BY FOOD_ID";
+
+        List<FoodItem> items = new ArrayList<>(ids.length);
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setFetchSize(fetchSize);
+            // H2 ограничивает размер массива-параметра (65536), поэтому ключи уходят частями
+            for (int from = 0; from < ids.length; from += SELECT_KEYS_PER_QUERY) {
+                int to = Math.min(ids.length, from + SELECT_KEYS_PER_QUERY);
+                Integer[] keys = new Integer[to - from];
+                for (int i = from; i < to; i++) {
+                    keys[i - from] = ids[i];
+                }
+                pstmt.setArray(1, connection.createArrayOf("INTEGER", keys));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(new FoodItem(
+                                rs.getInt("FOOD_ID"),
+                                rs.getString("FOOD_NAME"),
+                                rs.getString("FOOD_TYPE"),
+                                rs.getInt("FOOD_EXOTIC")
+                        ));
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    public static void delete(Connection connection, int id) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("DELETE FROM FOOD WHERE FOOD_ID = ?")) {
+            pstmt.setInt(1, id);
+            pstmt.executeUpdate();
+        }
+    }
+
+    public static TableSnapshot snapshot(Connection connection, int fetchSize) throws SQLException {
+        return TableSnapshot.capture(connection, TABLE, KEY_COLUMN, fetchSize);
+    }
+
+    public static TableFingerprint fingerprint(Connection connection) throws SQLException {
+        return TableFingerprint.capture(connection, TABLE, COLUMNS);
+    }
+
+    public static BulkLoader loader(Connection connection, int batchSize, int commitInterval) throws SQLException {
+        return new BulkLoader(connection, INSERT_SQL, batchSize, commitInterval);
+    }
+}
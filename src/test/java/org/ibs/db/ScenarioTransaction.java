@@ -0,0 +1,70 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * Транзакция, охватывающая весь сценарий. Открывается в хуке до первого шага и всегда
+ * откатывается после сценария, независимо от результата, поэтому шагам не нужно удалять
+ * за собой данные. Незафиксированные строки сценария не видны параллельным сценариям
+ * (READ COMMITTED).
+ */
+public class ScenarioTransaction implements AutoCloseable {
+
+    private static final String SAVEPOINT_NAME = "SCENARIO_START";
+
+    private final Connection connection;
+    private final Savepoint savepoint;
+
+    private ScenarioTransaction(Connection connection, Savepoint savepoint) {
+        this.connection = connection;
+        this.savepoint = savepoint;
+    }
+
+    public static ScenarioTransaction begin(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return new ScenarioTransaction(connection, connection.setSavepoint(SAVEPOINT_NAME));
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Откат всей транзакции сценария и закрытие соединения. Ошибки отката не маскируют
+     * ошибку сценария и только логируются.
+     *
+     * Точка сохранения нужна только чтобы заметить, что транзакцию зафиксировали посреди сценария
+     * (commit снимает все точки сохранения): тогда часть данных сценария уже не откатить. Полный
+     * rollback() выполняется в любом случае, чтобы соединение не вернулось с открытой транзакцией.
+     */
+    @Override
+    public void close() {
+        try {
+            if (connection.isClosed()) {
+                return;
+            }
+            try {
+                connection.rollback(savepoint);
+            } catch (SQLException e) {
+                System.err.println("Scenario savepoint " + SAVEPOINT_NAME + " was lost, the transaction was committed"
+                        + " during the scenario and committed rows stay in the database: " + e.getMessage());
+            }
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error during scenario rollback: " + e.getMessage());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking scenario connection: " + e.getMessage());
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error during connection close: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.ibs.db;
+
+import java.util.stream.LongStream;
+
+/**
+ * Разница между двумя снимками одной таблицы: ключи добавленных, удаленных и измененных строк.
+ * Оба снимка отсортированы по ключу, поэтому сравнение - один проход слиянием.
+ */
+public final class TableDiff {
+
+    private final TableSnapshot before;
+    private final TableSnapshot after;
+    private final long[] added;
+    private final long[] removed;
+    private final long[] changed;
+
+    private TableDiff(TableSnapshot before, TableSnapshot after, long[] added, long[] removed, long[] changed) {
+        this.before = before;
+        this.after = after;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    public static TableDiff between(TableSnapshot before, TableSnapshot after) {
+        if (!before.sameColumns(after)) {
+            throw new IllegalArgumentException("Snapshots have different columns: " + before.getTable() + ", " + after.getTable());
+        }
+        LongStream.Builder added = LongStream.builder();
+        LongStream.Builder removed = LongStream.builder();
+        LongStream.Builder changed = LongStream.builder();
+
+        int i = 0;
+        int j = 0;
+        while (i < before.getRowCount() || j < after.getRowCount()) {
+            if (j >= after.getRowCount()) {
+                removed.add(before.getKey(i++));
+            } else if (i >= before.getRowCount()) {
+                added.add(after.getKey(j++));
+            } else {
+                long beforeKey = before.getKey(i);
+                long afterKey = after.getKey(j);
+                if (beforeKey < afterKey) {
+                    removed.add(beforeKey);
+                    i++;
+                } else if (beforeKey > afterKey) {
+                    added.add(afterKey);
+                    j++;
+                } else {
+                    if (!sameRow(before, i, after, j)) {
+                        changed.add(beforeKey);
+                    }
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return new TableDiff(before, after, added.build().toArray(), removed.build().toArray(), changed.build().toArray());
+    }
+
+    private static boolean sameRow(TableSnapshot before, int row, TableSnapshot after, int otherRow) {
+        for (int column = 0; column < before.getColumnCount(); column++) {
+            if (column != before.getKeyIndex() && !before.sameValue(column, row, after, otherRow)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long[] getAdded() { return added.clone(); }
+    public long[] getRemoved() { return removed.clone(); }
+    public long[] getChanged() { return changed.clone(); }
+
+    public boolean isEmpty() {
+        return added.length == 0 && removed.length == 0 && changed.length == 0;
+    }
+
+    /**
+     * Текстовое описание не более maxRows строк каждого вида изменений.
+     */
+    public String describe(int maxRows) {
+        if (isEmpty()) {
+            return "Изменений нет";
+        }
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Добавлено: %d, удалено: %d, изменено: %d%n", added.length, removed.length, changed.length));
+        for (int k = 0; k < Math.min(added.length, maxRows); k++) {
+            text.append("+ ").append(after.formatRow(after.indexOf(added[k]))).append('\n');
+        }
+        for (int k = 0; k < Math.min(removed.length, maxRows); k++) {
+            text.append("- ").append(before.formatRow(before.indexOf(removed[k]))).append('\n');
+        }
+        for (int k = 0; k < Math.min(changed.length, maxRows); k++) {
+            text.append("~ ").append(before.formatRow(before.indexOf(changed[k])))
+                    .append(" -> ").append(after.formatRow(after.indexOf(changed[k]))).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Состояние таблицы, вычисленное на стороне БД: количество строк и не зависящая от порядка
+ * контрольная сумма (сумма ORA_HASH по всем строкам). Позволяет сравнивать таблицу "до" и "после"
+ * без передачи строк в JVM.
+ */
+public final class TableFingerprint {
+
+    private final long rowCount;
+    private final String checksum;
+
+    private TableFingerprint(long rowCount, String checksum) {
+        this.rowCount = rowCount;
+        this.checksum = checksum;
+    }
+
+    public static TableFingerprint capture(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "SELECT COUNT(*), COALESCE(SUM(CAST(ORA_HASH(" + rowExpression(columns) + ") AS BIGINT)), 0) FROM " + table;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return new TableFingerprint(rs.getLong(1), rs.getBigDecimal(2).toPlainString());
+        }
+    }
+
+    public long getRowCount() { return rowCount; }
+    public String getChecksum() { return checksum; }
+
+    // NULL и пустая строка не должны давать одинаковый хеш
+    private static String rowExpression(String... columns) {
+        StringJoiner row = new StringJoiner(", ", "CONCAT_WS('|', ", ")");
+        for (String column : columns) {
+            row.add("COALESCE(CAST(" + column + " AS VARCHAR), '<null>')");
+        }
+        return row.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TableFingerprint)) return false;
+        TableFingerprint that = (TableFingerprint) o;
+        return rowCount == that.rowCount && checksum.equals(that.checksum);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowCount, checksum);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TableFingerprint{rows=%d, checksum=%s}", rowCount, checksum);
+    }
+}
@@ -0,0 +1,309 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Снимок таблицы в колоночном виде: целочисленные и вещественные колонки хранятся в примитивных
+ * массивах, строковые - кодами словаря (повторяющиеся значения вроде FOOD_TYPE хранятся один раз).
+ * Строки упорядочены по уникальному целочисленному ключу, поэтому поиск по ключу - двоичный,
+ * а сравнение двух снимков выполняется слиянием за O(n) (см. {@link TableDiff}).
+ */
+public final class TableSnapshot {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final String table;
+    private final String[] columnNames;
+    private final Column[] columns;
+    private final int keyIndex;
+    private final int rowCount;
+
+    private TableSnapshot(String table, String[] columnNames, Column[] columns, int keyIndex, int rowCount) {
+        this.table = table;
+        this.columnNames = columnNames;
+        this.columns = columns;
+        this.keyIndex = keyIndex;
+        this.rowCount = rowCount;
+    }
+
+    public static TableSnapshot capture(Connection connection, String table, String keyColumn, int fetchSize)
+            throws SQLException {
+        String sql = "SELECT * FROM " + table + " ORDER BY " + keyColumn;
+
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String[] names = new String[columnCount];
+                Column[] columns = new Column[columnCount];
+                int keyIndex = -1;
+                for (int i = 0; i < columnCount; i++) {
+                    names[i] = metaData.getColumnLabel(i + 1);
+                    columns[i] = Column.forSqlType(metaData.getColumnType(i + 1));
+                    if (names[i].equalsIgnoreCase(keyColumn)) {
+                        keyIndex = i;
+                    }
+                }
+                if (keyIndex < 0 || !(columns[keyIndex] instanceof LongColumn)) {
+                    throw new IllegalArgumentException("Key column must be an integer column of " + table + ": " + keyColumn);
+                }
+
+                int row = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < columnCount; i++) {
+                        columns[i].read(rs, i + 1, row);
+                    }
+                    row++;
+                }
+                return new TableSnapshot(table, names, columns, keyIndex, row);
+            }
+        }
+    }
+
+    public String getTable() { return table; }
+    public int getRowCount() { return rowCount; }
+    public int getColumnCount() { return columns.length; }
+    public String getColumnName(int column) { return columnNames[column]; }
+
+    public long getKey(int row) {
+        return ((LongColumn) columns[keyIndex]).values[row];
+    }
+
+    /**
+     * Номер строки с данным ключом или -1.
+     */
+    public int indexOf(long key) {
+        int index = Arrays.binarySearch(((LongColumn) columns[keyIndex]).values, 0, rowCount, key);
+        return index >= 0 ? index : -1;
+    }
+
+    public int columnIndex(String columnName) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column " + columnName + " in " + table);
+    }
+
+    public Object getValue(int column, int row) {
+        return columns[column].get(row);
+    }
+
+    public Object getValue(String columnName, int row) {
+        return getValue(columnIndex(columnName), row);
+    }
+
+    boolean sameValue(int column, int row, TableSnapshot other, int otherRow) {
+        return columns[column].sameValue(row, other.columns[column], otherRow);
+    }
+
+    boolean sameColumns(TableSnapshot other) {
+        return Arrays.equals(columnNames, other.columnNames) && keyIndex == other.keyIndex;
+    }
+
+    int getKeyIndex() {
+        return keyIndex;
+    }
+
+    public String formatRow(int row) {
+        StringJoiner joiner = new StringJoiner(", ", table + "{", "}");
+        for (int i = 0; i < columns.length; i++) {
+            joiner.add(columnNames[i] + "=" + columns[i].get(row));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Первые maxRows строк снимка, по одной на строку текста.
+     */
+    public String format(int maxRows) {
+        StringBuilder text = new StringBuilder();
+        int limit = Math.min(rowCount, maxRows);
+        for (int row = 0; row < limit; row++) {
+            text.append(formatRow(row)).append('\n');
+        }
+        if (rowCount > limit) {
+            text.append("... еще ").append(rowCount - limit).append(" строк\n");
+        }
+        return text.toString();
+    }
+
+    private abstract static class Column {
+
+        protected final BitSet nulls = new BitSet();
+
+        static Column forSqlType(int sqlType) {
+            switch (sqlType) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    return new LongColumn();
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return new DoubleColumn();
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                    return new StringColumn();
+                default:
+                    return new ObjectColumn();
+            }
+        }
+
+        abstract void read(ResultSet rs, int index, int row) throws SQLException;
+
+        abstract Object get(int row);
+
+        abstract boolean sameValue(int row, Column other, int otherRow);
+
+        protected static int grow(int capacity, int row) {
+            int newCapacity = Math.max(capacity, INITIAL_CAPACITY);
+            while (newCapacity <= row) {
+                newCapacity *= 2;
+            }
+            return newCapacity;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = rs.getLong(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        boolean sameValue(int row, Column other, int otherRow) {
+            LongColumn that = (LongColumn) other;
+            return nulls.get(row) == that.nulls.get(otherRow) && values[row] == that.values[otherRow];
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = rs.getDouble(index);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        @Override
+        boolean sameValue(int row, Column other, int otherRow) {
+            DoubleColumn that = (DoubleColumn) other;
+            return nulls.get(row) == that.nulls.get(otherRow)
+                    && Double.compare(values[row], that.values[otherRow]) == 0;
+        }
+    }
+
+    private static final class StringColumn extends Column {
+
+        private static final int NULL_CODE = -1;
+
+        private int[] codes = new int[INITIAL_CAPACITY];
+        private String[] dictionary = new String[16];
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row >= codes.length) {
+                codes = Arrays.copyOf(codes, grow(codes.length, row));
+            }
+            String value = rs.getString(index);
+            codes[row] = value == null ? NULL_CODE : encode(value);
+        }
+
+        private int encode(String value) {
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                code = dictionaryIndex.size();
+                if (code == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, dictionary.length * 2);
+                }
+                dictionary[code] = value;
+                dictionaryIndex.put(value, code);
+            }
+            return code;
+        }
+
+        @Override
+        Object get(int row) {
+            return codes[row] == NULL_CODE ? null : dictionary[codes[row]];
+        }
+
+        @Override
+        boolean sameValue(int row, Column other, int otherRow) {
+            StringColumn that = (StringColumn) other;
+            int code = codes[row];
+            int otherCode = that.codes[otherRow];
+            if (code == NULL_CODE || otherCode == NULL_CODE) {
+                return code == otherCode;
+            }
+            return dictionary[code].equals(that.dictionary[otherCode]);
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        @Override
+        void read(ResultSet rs, int index, int row) throws SQLException {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = rs.getObject(index);
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean sameValue(int row, Column other, int otherRow) {
+            return Objects.equals(values[row], ((ObjectColumn) other).values[otherRow]);
+        }
+    }
+}
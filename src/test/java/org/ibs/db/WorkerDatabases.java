@@ -0,0 +1,56 @@
+package org.ibs.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Встроенные БД по одной на поток исполнения сценариев. Схема и исходные данные строятся
+ * один раз в шаблонной БД, снимаются в {@link DatabaseSnapshot} и воспроизводятся в БД
+ * каждого потока при первом обращении и по {@link #restoreCurrent()}.
+ */
+public final class WorkerDatabases implements ConnectionFactory {
+
+    private final String name;
+    private final DatabaseSnapshot template;
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ThreadLocal<EmbeddedDatabase> current = new ThreadLocal<>();
+
+    private WorkerDatabases(String name, DatabaseSnapshot template) {
+        this.name = name;
+        this.template = template;
+    }
+
+    public static WorkerDatabases fromScript(String name, String classpathScript) throws SQLException {
+        EmbeddedDatabase templateDatabase = EmbeddedDatabase.create(name + "_template");
+        templateDatabase.runScript(classpathScript);
+        return new WorkerDatabases(name, templateDatabase.snapshot());
+    }
+
+    public EmbeddedDatabase current() throws SQLException {
+        EmbeddedDatabase database = current.get();
+        if (database == null) {
+            database = EmbeddedDatabase.create(name + "_worker_" + counter.incrementAndGet());
+            database.restore(template);
+            current.set(database);
+        }
+        return database;
+    }
+
+    /**
+     * Возвращает БД текущего потока к состоянию шаблона.
+     */
+    public void restoreCurrent() throws SQLException {
+        EmbeddedDatabase database = current.get();
+        if (database == null) {
+            current();
+        } else {
+            database.restore(template);
+        }
+    }
+
+    @Override
+    public Connection open() throws SQLException {
+        return current().open();
+    }
+}
@@ -0,0 +1,83 @@
+package org.ibs.driver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Журнал команд WebDriver одной сессии. Сессия из пула переходит от сценария к сценарию,
+ * поэтому журнал очищается в начале каждого сценария, а сводка снимается в его конце.
+ */
+public final class CommandLog {
+
+    private static final int MAX_RECORDS = 10_000;
+
+    private final List<Command> commands = new ArrayList<>();
+    private long dropped;
+
+    synchronized void record(String name, long nanos, long payloadBytes, boolean success) {
+        if (commands.size() >= MAX_RECORDS) {
+            dropped++;
+            return;
+        }
+        commands.add(new Command(name, nanos, payloadBytes, success));
+    }
+
+    public synchronized void reset() {
+        commands.clear();
+        dropped = 0;
+    }
+
+    public synchronized int size() {
+        return commands.size();
+    }
+
+    /**
+     * Сводка: итоги по типам команд (по убыванию суммарного времени) и top самых долгих вызовов.
+     */
+    public synchronized String summary(int top) {
+        Map<String, long[]> totals = new TreeMap<>();
+        long totalNanos = 0;
+        for (Command command : commands) {
+            long[] total = totals.computeIfAbsent(command.name, k -> new long[4]);
+            total[0]++;
+            total[1] += command.nanos;
+            total[2] = Math.max(total[2], command.nanos);
+            total[3] += command.payloadBytes;
+            totalNanos += command.nanos;
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Команд: %d, время в командах: %.1f мс%s%n", commands.size(), totalNanos / 1_000_000.0,
+                dropped > 0 ? " (не записано: " + dropped + ")" : ""));
+        text.append(String.format("%-40s %6s %10s %10s %10s%n", "command", "count", "total ms", "max ms", "payload"));
+        totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1]).reversed())
+                .forEach(e -> text.append(String.format("%-40s %6d %10.1f %10.1f %10d%n", e.getKey(), e.getValue()[0],
+                        e.getValue()[1] / 1_000_000.0, e.getValue()[2] / 1_000_000.0, e.getValue()[3])));
+
+        text.append("Самые долгие команды:\n");
+        commands.stream()
+                .sorted(Comparator.comparingLong((Command c) -> c.nanos).reversed())
+                .limit(top)
+                .forEach(c -> text.append(String.format("  %8.1f мс  %-40s payload=%d%s%n", c.nanos / 1_000_000.0,
+                        c.name, c.payloadBytes, c.success ? "" : " (ошибка)")));
+        return text.toString();
+    }
+
+    private static final class Command {
+        private final String name;
+        private final long nanos;
+        private final long payloadBytes;
+        private final boolean success;
+
+        private Command(String name, long nanos, long payloadBytes, boolean success) {
+            this.name = name;
+            this.nanos = nanos;
+            this.payloadBytes = payloadBytes;
+            this.success = success;
+        }
+    }
+}
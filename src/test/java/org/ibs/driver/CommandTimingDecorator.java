@@ -0,0 +1,98 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Декоратор драйвера, который замеряет каждую команду WebDriver (драйвер, элементы, навигация,
+ * окна): пишет ее в {@link CommandLog} сессии и публикует событие JFR {@link WebDriverCommandEvent}.
+ * Размер полезной нагрузки оценивается по строкам в аргументах и результате команды
+ * (текст sendKeys, скрипты executeScript, getPageSource).
+ */
+public final class CommandTimingDecorator extends WebDriverDecorator<WebDriver> {
+
+    // Служебные методы Object и обертки не являются командами браузера
+    private static final Set<String> IGNORED = Set.of("toString", "hashCode", "equals", "getWrappedDriver",
+            "getWrappedElement", "getCoordinates");
+
+    private final CommandLog log;
+
+    private CommandTimingDecorator(CommandLog log) {
+        super(WebDriver.class);
+        this.log = log;
+    }
+
+    public static WebDriver instrument(WebDriver driver, CommandLog log) {
+        return new CommandTimingDecorator(log).decorate(driver);
+    }
+
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        if (IGNORED.contains(method.getName())) {
+            return super.call(target, method, args);
+        }
+        WebDriverCommandEvent event = new WebDriverCommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = super.call(target, method, args);
+            success = true;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            long payload = payloadBytes(args) + payloadBytes(result);
+            log.record(name, nanos, payload, success);
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = name;
+                event.payloadBytes = payload;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    private static long payloadBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence) {
+            return value.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (value instanceof Object[]) {
+            long total = 0;
+            for (Object item : (Object[]) value) {
+                total += payloadBytes(item);
+            }
+            return total;
+        }
+        if (value instanceof Collection) {
+            long total = 0;
+            for (Object item : (Collection<?>) value) {
+                total += payloadBytes(item);
+            }
+            return total;
+        }
+        if (value instanceof Map) {
+            long total = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                total += payloadBytes(entry.getKey()) + payloadBytes(entry.getValue());
+            }
+            return total;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,130 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Создание новых сессий браузера по {@link DriverSettings}.
+ * Не хранит состояния и может вызываться из любого потока.
+ */
+public final class DriverFactory {
+
+    private DriverFactory() {
+    }
+
+    public static WebDriver createDriver(DriverSettings settings) {
+        try {
+            if (settings.isSelenoid()) {
+                return initRemoteDriver(settings);
+            }
+            return createLocalDriver(settings);
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Invalid selenoid.url: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Инициализация удаленного драйвера с использованием Desired Capabilities
+     */
+    private static WebDriver initRemoteDriver(DriverSettings settings) throws MalformedURLException {
+        String remoteUrl = settings.getSelenoidUrl();
+        if (remoteUrl == null || remoteUrl.trim().isEmpty()) {
+            throw new RuntimeException("Remote URL (selenoid.url) is not specified");
+        }
+
+        String browserName = settings.getSelenoidBrowser();
+        String browserVersion = settings.getBrowserVersion();
+        boolean enableVNC = settings.isEnableVnc();
+        boolean enableVideo = settings.isEnableVideo();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setBrowserName(browserName);
+
+        if (!"latest".equals(browserVersion)) {
+            capabilities.setVersion(browserVersion);
+        }
+
+        Map<String, Object> selenoidOptions = new HashMap<>();
+        selenoidOptions.put("enableVNC", enableVNC);
+        selenoidOptions.put("enableVideo", enableVideo);
+        selenoidOptions.put("name", "Registration Tests - " + browserName);
+
+        capabilities.setCapability("acceptInsecureCerts", true);
+        capabilities.setCapability("selenoid:options", selenoidOptions);
+
+        switch (browserName.toLowerCase()) {
+            case "chrome":
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.addArguments("--no-sandbox");
+                chromeOptions.addArguments("--disable-dev-shm-usage");
+                chromeOptions.addArguments("--headless");
+                chromeOptions.addArguments("--window-size=1920,1080");
+                chromeOptions.addArguments("--remote-allow-origins=*");
+                capabilities.setCapability(ChromeOptions.CAPABILITY, chromeOptions);
+                break;
+
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                firefoxOptions.addArguments("--headless");
+                firefoxOptions.addArguments("--width=1920");
+                firefoxOptions.addArguments("--height=1080");
+                capabilities.setCapability(FirefoxOptions.FIREFOX_OPTIONS, firefoxOptions);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browserName);
+        }
+
+        return new RemoteWebDriver(new URL(remoteUrl), capabilities);
+    }
+
+    private static WebDriver createLocalDriver(DriverSettings settings) {
+        try {
+            String browser = settings.getLocalBrowser();
+            boolean headless = settings.isLocalHeadless();
+
+            switch (browser.toLowerCase()) {
+                case "chrome":
+                    return createLocalChromeDriver(headless);
+                case "firefox":
+                    return createLocalFirefoxDriver(headless);
+                default:
+                    throw new IllegalArgumentException("Unsupported browser: " + browser);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create Local driver: " + e.getMessage(), e);
+        }
+    }
+
+    private static WebDriver createLocalFirefoxDriver(boolean headless) {
+        FirefoxOptions options = new FirefoxOptions();
+        if (headless) {
+            options.addArguments("--headless");
+        }
+        options.addArguments("--width=1920");
+        options.addArguments("--height=1080");
+        return new FirefoxDriver(options);
+    }
+
+    private static WebDriver createLocalChromeDriver(boolean headless) {
+        ChromeOptions options = new ChromeOptions();
+        if (headless) {
+            options.addArguments("--headless");
+        }
+        options.addArguments("--window-size=1920,1080");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--remote-allow-origins=*");
+        return new ChromeDriver(options);
+    }
+}
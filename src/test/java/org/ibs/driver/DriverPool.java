@@ -0,0 +1,231 @@
+package org.ibs.driver;
+
+import org.ibs.config.TestConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул прогретых сессий браузера, общий для всех сценариев JVM.
+ * Настройки пул получает один раз при создании ({@link DriverSettings} из {@link TestConfig}),
+ * поэтому все его сессии имеют одинаковые capabilities; перед повторной выдачей
+ * сессия очищается (cookies, localStorage/sessionStorage, about:blank). Сессия закрывается,
+ * если сценарий упал или она отработала driver.pool.max.uses сценариев.
+ *
+ * Настройки:
+ * driver.pool.enabled  - использовать пул (false - новая сессия на каждый сценарий, как раньше);
+ * driver.pool.size     - сколько свободных сессий держать;
+ * driver.pool.max.uses - после скольких сценариев сессия пересоздается.
+ *
+ * Новые сессии запрашиваются в фоне ({@link #borrowAsync}), чтобы старт контейнера Selenoid шел
+ * параллельно с хуками сценария, а шаг лишь дожидался уже, как правило, готового future;
+ * {@link #prewarm} заранее запускает сессии для сценариев, стартующих одновременно.
+ */
+public final class DriverPool {
+
+    private static final long PENDING_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final DriverPool INSTANCE = new DriverPool(DriverSettings.from(TestConfig.get()));
+
+    private final DriverSettings settings;
+    private final BlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final BlockingDeque<CompletableFuture<PooledSession>> pending = new LinkedBlockingDeque<>();
+    private final ExecutorService starter = Executors.newCachedThreadPool(new StarterThreadFactory());
+
+    private DriverPool(DriverSettings settings) {
+        this.settings = settings;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    public DriverSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Выдает свободную живую сессию или создает новую.
+     */
+    public PooledSession borrow() {
+        return await(borrowAsync());
+    }
+
+    /**
+     * Резервирует сессию для сценария, не блокируя вызывающий поток: свободная сессия из пула,
+     * заранее запущенная через {@link #prewarm} или новая, создаваемая в фоне.
+     */
+    public CompletableFuture<PooledSession> borrowAsync() {
+        if (settings.isPoolEnabled()) {
+            PooledSession session = pollIdle();
+            if (session != null) {
+                session.markUsed();
+                return CompletableFuture.completedFuture(session);
+            }
+        }
+        CompletableFuture<PooledSession> future;
+        CompletableFuture<PooledSession> prewarmed = pending.pollFirst();
+        if (prewarmed != null) {
+            // Если прогрев не удался, даем сессии еще одну попытку уже для этого сценария
+            future = prewarmed.exceptionally(e -> null)
+                    .thenCompose(s -> s != null ? CompletableFuture.completedFuture(s) : startAsync());
+        } else {
+            future = startAsync();
+        }
+        return future.thenApply(s -> {
+            s.markUsed();
+            return s;
+        });
+    }
+
+    /**
+     * Запускает в фоне создание сессий, пока свободных и уже запускаемых сессий меньше count.
+     */
+    public synchronized void prewarm(int count) {
+        int available = pending.size() + idle.size();
+        for (int i = available; i < count; i++) {
+            pending.offerLast(startAsync());
+        }
+    }
+
+    /**
+     * Ожидает future сессии, разворачивая исходную причину ошибки создания драйвера.
+     */
+    public static PooledSession await(CompletableFuture<PooledSession> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает сессию в пул или закрывает ее, если она больше не пригодна для повторного использования.
+     */
+    public void release(PooledSession session, boolean failed) {
+        if (session == null) {
+            return;
+        }
+        if (!settings.isPoolEnabled() || failed || session.getUses() >= settings.getPoolMaxUses()
+                || !clean(session.getDriver())) {
+            quitQuietly(session);
+            return;
+        }
+        if (idle.size() >= settings.getPoolSize() || !idle.offerFirst(session)) {
+            quitQuietly(session);
+        }
+    }
+
+    public void shutdown() {
+        CompletableFuture<PooledSession> future;
+        while ((future = pending.pollFirst()) != null) {
+            // Незабранная прогретая сессия иначе останется висеть в Selenoid до таймаута
+            try {
+                quitQuietly(future.get(PENDING_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                System.err.println("Prewarmed session was not released: " + e.getMessage());
+            }
+        }
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            quitQuietly(session);
+        }
+        starter.shutdownNow();
+    }
+
+    private CompletableFuture<PooledSession> startAsync() {
+        return CompletableFuture.supplyAsync(this::createSession, starter);
+    }
+
+    private PooledSession createSession() {
+        WebDriver driver = DriverFactory.createDriver(settings);
+        SessionKey key = settings.getSessionKey();
+        // DevTools подключаются к исходному драйверу: декоратор не реализует HasDevTools
+        NetworkLog networkLog = settings.getNetworkProfile().attach(driver);
+        if (!settings.isInstrumentEnabled()) {
+            return new PooledSession(driver, key, null, networkLog);
+        }
+        CommandLog log = new CommandLog();
+        return new PooledSession(CommandTimingDecorator.instrument(driver, log), key, log, networkLog);
+    }
+
+    private PooledSession pollIdle() {
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (isAlive(session)) {
+                return session;
+            }
+            quitQuietly(session);
+        }
+        return null;
+    }
+
+    private static boolean isAlive(PooledSession session) {
+        try {
+            session.getDriver().getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Приводит сессию к состоянию "только что открытого" браузера.
+     */
+    private static boolean clean(WebDriver driver) {
+        try {
+            // Хранилища доступны только со страницы приложения, поэтому чистим их до ухода на about:blank
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            String mainWindow = driver.getWindowHandle();
+            for (String handle : driver.getWindowHandles()) {
+                if (!handle.equals(mainWindow)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(mainWindow);
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Session cleanup failed, session will be recycled: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quitQuietly(PooledSession session) {
+        if (session.getNetworkLog() != null) {
+            session.getNetworkLog().close();
+        }
+        try {
+            session.getDriver().quit();
+        } catch (Exception e) {
+            System.err.println("Error during driver quit: " + e.getMessage());
+        }
+    }
+
+    private static final class StarterThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "driver-prewarm-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.ibs.driver;
+
+import org.ibs.config.TestConfig;
+
+/**
+ * Настройки браузера и пула драйверов, разобранные из {@link TestConfig} один раз на JVM.
+ * Пул, фабрика драйверов и шаги читают значения отсюда и не разбирают строки конфигурации
+ * на каждую выдачу или возврат сессии.
+ */
+public final class DriverSettings {
+
+    private final boolean selenoid;
+    private final String selenoidUrl;
+    private final String selenoidBrowser;
+    private final String browserVersion;
+    private final boolean enableVnc;
+    private final boolean enableVideo;
+    private final String localBrowser;
+    private final boolean localHeadless;
+    private final boolean poolEnabled;
+    private final int poolSize;
+    private final int poolMaxUses;
+    private final boolean prewarmEnabled;
+    private final int prewarmCount;
+    private final boolean instrumentEnabled;
+    private final int instrumentTop;
+    private final NetworkProfile networkProfile;
+    private final SessionKey sessionKey;
+
+    private DriverSettings(TestConfig config) {
+        this.selenoid = config.isSelenoid();
+        this.selenoidUrl = config.getString("selenoid.url");
+        this.selenoidBrowser = config.getString("selenoid.browser");
+        this.browserVersion = config.getString("browser.version");
+        this.enableVnc = config.getBoolean("enable.vnc");
+        this.enableVideo = config.getBoolean("enable.video");
+        this.localBrowser = config.getString("local.browser");
+        this.localHeadless = config.getBoolean("local.headless");
+        this.poolEnabled = config.getBoolean("driver.pool.enabled");
+        this.poolSize = config.getInt("driver.pool.size");
+        this.poolMaxUses = config.getInt("driver.pool.max.uses");
+        this.prewarmEnabled = config.getBoolean("driver.prewarm.enabled");
+        this.prewarmCount = config.getInt("driver.prewarm.count");
+        this.instrumentEnabled = config.getBoolean("driver.instrument.enabled");
+        this.instrumentTop = config.getInt("driver.instrument.top");
+        this.networkProfile = config.getBoolean("driver.network.profile.enabled")
+                ? NetworkProfile.of(config.getString("driver.network.block.types"),
+                        config.getString("driver.network.block.urls"))
+                : NetworkProfile.none();
+        this.sessionKey = selenoid
+                ? new SessionKey("selenoid", selenoidBrowser.toLowerCase(), browserVersion, true)
+                : new SessionKey("local", localBrowser.toLowerCase(), "local", localHeadless);
+    }
+
+    public static DriverSettings from(TestConfig config) {
+        return new DriverSettings(config);
+    }
+
+    public boolean isSelenoid() { return selenoid; }
+    public String getSelenoidUrl() { return selenoidUrl; }
+    public String getSelenoidBrowser() { return selenoidBrowser; }
+    public String getBrowserVersion() { return browserVersion; }
+    public boolean isEnableVnc() { return enableVnc; }
+    public boolean isEnableVideo() { return enableVideo; }
+    public String getLocalBrowser() { return localBrowser; }
+    public boolean isLocalHeadless() { return localHeadless; }
+    public boolean isPoolEnabled() { return poolEnabled; }
+    public int getPoolSize() { return poolSize; }
+    public int getPoolMaxUses() { return poolMaxUses; }
+    public boolean isPrewarmEnabled() { return prewarmEnabled; }
+    public int getPrewarmCount() { return prewarmCount; }
+    public boolean isInstrumentEnabled() { return instrumentEnabled; }
+
+    /**
+     * Сколько строк выводить в сводках команд WebDriver и сетевого профиля сценария.
+     */
+    public int getInstrumentTop() { return instrumentTop; }
+
+    public NetworkProfile getNetworkProfile() { return networkProfile; }
+
+    /**
+     * Capabilities сессий, которые создаются по этим настройкам.
+     */
+    public SessionKey getSessionKey() { return sessionKey; }
+}
@@ -0,0 +1,69 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.devtools.DevTools;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Журнал сетевого профиля сессии: сколько запросов заблокировано (по типам ресурсов) и сколько
+ * загружено. Как и {@link CommandLog}, очищается в начале каждого сценария.
+ * Размер заблокированных ресурсов не оценивается: для этого пришлось бы самим обращаться к тем
+ * адресам (в том числе счетчикам аналитики), которые профиль должен отсекать.
+ */
+public final class NetworkLog {
+
+    private final DevTools devTools;
+    private final Map<String, Integer> blockedByType = new TreeMap<>();
+    private final Map<String, Integer> blockedUrls = new TreeMap<>();
+    private int loadedRequests;
+    private long loadedBytes;
+
+    NetworkLog(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    synchronized void blocked(String resourceType, String url) {
+        blockedByType.merge(resourceType, 1, Integer::sum);
+        blockedUrls.merge(url, 1, Integer::sum);
+    }
+
+    synchronized void loaded(long bytes) {
+        loadedRequests++;
+        loadedBytes += bytes;
+    }
+
+    public synchronized void reset() {
+        blockedByType.clear();
+        blockedUrls.clear();
+        loadedRequests = 0;
+        loadedBytes = 0;
+    }
+
+    public synchronized int getBlockedRequests() {
+        return blockedByType.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Сводка: заблокировано запросов по типам, загружено запросов и байт, самые частые заблокированные URL.
+     */
+    public synchronized String summary(int top) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Заблокировано запросов: %d %s%n", getBlockedRequests(), blockedByType));
+        text.append(String.format("Загружено запросов: %d, %.1f КБ%n", loadedRequests, loadedBytes / 1024.0));
+        blockedUrls.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .forEach(e -> text.append(String.format("%6d  %s%n", e.getValue(), e.getKey())));
+        return text.toString();
+    }
+
+    void close() {
+        try {
+            devTools.close();
+        } catch (Exception e) {
+            System.err.println("Error during DevTools close: " + e.getMessage());
+        }
+    }
+}
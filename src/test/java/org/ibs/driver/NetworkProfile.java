@@ -0,0 +1,152 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сетевой профиль сессии: запросы ресурсов, не нужных для работы с формой (картинки, шрифты,
+ * счетчики аналитики), отклоняются браузером еще до отправки, поэтому ожидание
+ * document.readyState == complete не ждет их загрузки. Перехват выполняется через Fetch-домен
+ * DevTools сырыми командами, без привязки к версии CDP; профиль работает с Chromium-браузерами,
+ * локальными и удаленными (для Selenoid нужна поддержка se:cdp), для остальных не применяется.
+ */
+public final class NetworkProfile {
+
+    private final List<String> resourceTypes;
+    private final List<String> urlPatterns;
+
+    private NetworkProfile(List<String> resourceTypes, List<String> urlPatterns) {
+        this.resourceTypes = resourceTypes;
+        this.urlPatterns = urlPatterns;
+    }
+
+    /**
+     * types - типы ресурсов CDP через запятую (image, font, media, stylesheet, ...),
+     * urls - шаблоны URL с * и ? через запятую (driver.network.block.types и driver.network.block.urls).
+     */
+    public static NetworkProfile of(String types, String urls) {
+        List<String> resourceTypes = new ArrayList<>();
+        for (String type : split(types)) {
+            resourceTypes.add(cdpResourceType(type));
+        }
+        return new NetworkProfile(resourceTypes, split(urls));
+    }
+
+    /**
+     * Пустой профиль: driver.network.profile.enabled=false, запросы не блокируются.
+     */
+    public static NetworkProfile none() {
+        return new NetworkProfile(Collections.emptyList(), Collections.emptyList());
+    }
+
+    public boolean isEmpty() {
+        return resourceTypes.isEmpty() && urlPatterns.isEmpty();
+    }
+
+    /**
+     * Включает блокировку в сессии драйвера. Возвращает журнал заблокированных и загруженных запросов
+     * или null, если профиль пуст или браузер не поддерживает DevTools.
+     */
+    public NetworkLog attach(WebDriver driver) {
+        if (isEmpty()) {
+            return null;
+        }
+        try {
+            WebDriver devToolsDriver = driver instanceof RemoteWebDriver && !(driver instanceof HasDevTools)
+                    ? new Augmenter().augment(driver)
+                    : driver;
+            if (!(devToolsDriver instanceof HasDevTools)) {
+                System.out.println("Network profile skipped: " + describe(driver) + " does not support DevTools");
+                return null;
+            }
+            DevTools devTools = ((HasDevTools) devToolsDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            NetworkLog log = new NetworkLog(devTools);
+            enable(devTools, log);
+            return log;
+        } catch (Exception e) {
+            System.out.println("Network profile skipped for " + describe(driver) + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void enable(DevTools devTools, NetworkLog log) {
+        devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                paused -> {
+                    Map<?, ?> request = (Map<?, ?>) paused.get("request");
+                    log.blocked(String.valueOf(paused.get("resourceType")), String.valueOf(request.get("url")));
+                    devTools.send(new Command<>("Fetch.failRequest",
+                            Map.of("requestId", paused.get("requestId"), "errorReason", "BlockedByClient")));
+                });
+        devTools.addListener(new Event<>("Network.loadingFinished", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                finished -> log.loaded(((Number) finished.get("encodedDataLength")).longValue()));
+
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : resourceTypes) {
+            patterns.add(pattern("*", type));
+        }
+        for (String url : urlPatterns) {
+            patterns.add(pattern(url, null));
+        }
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+    }
+
+    private static Map<String, Object> pattern(String urlPattern, String resourceType) {
+        Map<String, Object> pattern = new LinkedHashMap<>();
+        pattern.put("urlPattern", urlPattern);
+        if (resourceType != null) {
+            pattern.put("resourceType", resourceType);
+        }
+        pattern.put("requestStage", "Request");
+        return pattern;
+    }
+
+    private static String cdpResourceType(String type) {
+        String lower = type.toLowerCase(Locale.ROOT);
+        switch (lower) {
+            case "xhr":
+                return "XHR";
+            case "texttrack":
+                return "TextTrack";
+            case "eventsource":
+                return "EventSource";
+            case "websocket":
+                return "WebSocket";
+            case "cspviolationreport":
+                return "CSPViolationReport";
+            default:
+                return Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+        }
+    }
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : Arrays.asList(value.split(","))) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static String describe(WebDriver driver) {
+        return driver instanceof RemoteWebDriver
+                ? ((RemoteWebDriver) driver).getCapabilities().getBrowserName()
+                : driver.getClass().getSimpleName();
+    }
+}
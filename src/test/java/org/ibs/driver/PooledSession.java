@@ -0,0 +1,40 @@
+package org.ibs.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Сессия браузера, выданная пулом сценарию. Возвращается через {@link DriverPool#release}.
+ */
+public final class PooledSession {
+
+    private final WebDriver driver;
+    private final SessionKey key;
+    private final CommandLog commandLog;
+    private final NetworkLog networkLog;
+    private int uses;
+
+    PooledSession(WebDriver driver, SessionKey key, CommandLog commandLog, NetworkLog networkLog) {
+        this.driver = driver;
+        this.key = key;
+        this.commandLog = commandLog;
+        this.networkLog = networkLog;
+    }
+
+    public WebDriver getDriver() { return driver; }
+    public SessionKey getKey() { return key; }
+    public int getUses() { return uses; }
+
+    /**
+     * Журнал команд, если драйвер создан с driver.instrument.enabled=true, иначе null.
+     */
+    public CommandLog getCommandLog() { return commandLog; }
+
+    /**
+     * Журнал сетевого профиля, если к сессии применена блокировка запросов, иначе null.
+     */
+    public NetworkLog getNetworkLog() { return networkLog; }
+
+    void markUsed() {
+        uses++;
+    }
+}
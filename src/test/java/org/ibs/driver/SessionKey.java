@@ -0,0 +1,48 @@
+package org.ibs.driver;
+
+import java.util.Objects;
+
+/**
+ * Набор capabilities, по которому сессии браузера считаются взаимозаменяемыми в пуле.
+ * Создается из настроек прогона в {@link DriverSettings#getSessionKey()}.
+ */
+public final class SessionKey {
+
+    private final String runMode;
+    private final String browser;
+    private final String version;
+    private final boolean headless;
+
+    public SessionKey(String runMode, String browser, String version, boolean headless) {
+        this.runMode = runMode;
+        this.browser = browser;
+        this.version = version;
+        this.headless = headless;
+    }
+
+    public String getRunMode() { return runMode; }
+    public String getBrowser() { return browser; }
+    public String getVersion() { return version; }
+    public boolean isHeadless() { return headless; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SessionKey)) return false;
+        SessionKey that = (SessionKey) o;
+        return headless == that.headless
+                && runMode.equals(that.runMode)
+                && browser.equals(that.browser)
+                && version.equals(that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(runMode, browser, version, headless);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s:%s%s", runMode, browser, version, headless ? " (headless)" : "");
+    }
+}
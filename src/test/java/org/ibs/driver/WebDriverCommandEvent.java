@@ -0,0 +1,32 @@
+package org.ibs.driver;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR на каждую команду WebDriver. Длительность события - время команды,
+ * включая сетевой обмен с Selenoid. Записывается только при активной записи JFR,
+ * например -XX:StartFlightRecording=filename=target/webdriver.jfr.
+ */
+@Name("org.ibs.WebDriverCommand")
+@Label("WebDriver Command")
+@Category({"Autotests", "WebDriver"})
+@Description("Вызов команды WebDriver из тестов")
+@StackTrace(false)
+class WebDriverCommandEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Payload")
+    @DataAmount(DataAmount.BYTES)
+    long payloadBytes;
+
+    @Label("Success")
+    boolean success;
+}
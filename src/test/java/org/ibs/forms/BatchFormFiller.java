@@ -0,0 +1,64 @@
+package org.ibs.forms;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Заполнение полей формы одним вызовом executeScript вместо ожидания, clear() и sendKeys()
+ * на каждое поле. Значения выставляются через нативные сеттеры value/checked, после чего
+ * поднимаются события input и change, чтобы валидация страницы отработала как при вводе.
+ */
+public class BatchFormFiller {
+
+    private static final String FILL_SCRIPT =
+            "var fields = arguments[0], missing = [];" +
+            "var valueSetter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;" +
+            "var checkedSetter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'checked').set;" +
+            "fields.forEach(function (field) {" +
+            "  var element = document.querySelector(field.selector);" +
+            "  if (!element) { missing.push(field.selector); return; }" +
+            "  element.focus();" +
+            "  if (field.checkbox) {" +
+            "    if (element.checked !== field.value) { checkedSetter.call(element, field.value); }" +
+            "  } else {" +
+            "    valueSetter.call(element, field.value);" +
+            "  }" +
+            "  element.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "  element.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "  element.blur();" +
+            "});" +
+            "return missing;";
+
+    private final List<Map<String, Object>> fields = new ArrayList<>();
+
+    public BatchFormFiller text(String cssSelector, String value) {
+        return add(cssSelector, value, false);
+    }
+
+    public BatchFormFiller checkbox(String cssSelector, boolean checked) {
+        return add(cssSelector, checked, true);
+    }
+
+    /**
+     * Заполняет все добавленные поля и возвращает селекторы, для которых элемент не найден.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> fill(WebDriver driver) {
+        Object missing = ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, fields);
+        return missing instanceof List ? (List<String>) missing : new ArrayList<>();
+    }
+
+    private BatchFormFiller add(String cssSelector, Object value, boolean checkbox) {
+        Map<String, Object> field = new HashMap<>();
+        field.put("selector", cssSelector);
+        field.put("value", value);
+        field.put("checkbox", checkbox);
+        fields.add(field);
+        return this;
+    }
+}
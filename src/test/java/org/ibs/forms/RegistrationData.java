@@ -0,0 +1,90 @@
+package org.ibs.forms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Данные формы регистрации. Одни и те же наборы используются при заполнении формы в браузере
+ * и при отправке формы по HTTP без браузера.
+ */
+public final class RegistrationData {
+
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String password;
+    private final boolean subscribe;
+    private final boolean agree;
+
+    public RegistrationData(String firstName, String lastName, String email,
+                            String password, boolean subscribe, boolean agree) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.password = password;
+        this.subscribe = subscribe;
+        this.agree = agree;
+    }
+
+    public static RegistrationData invalidEmail() {
+        return new RegistrationData("Иван", "Иванов", "himail.ru", "Q1w2e3l", false, true);
+    }
+
+    public static RegistrationData digitsInName() {
+        return new RegistrationData("1234567890", "Иванов", "IvanIvan22222222@mail.ru", "Q1w2e3l", false, true);
+    }
+
+    /**
+     * Валидные данные с уникальным email: при параллельном запуске currentTimeMillis
+     * может совпасть у двух сценариев, поэтому добавляется фрагмент UUID.
+     */
+    public static RegistrationData valid() {
+        String uniqueEmail = "test" + System.currentTimeMillis() + "_"
+                + UUID.randomUUID().toString().substring(0, 8) + "@mail.ru";
+        return new RegistrationData("Иван", "Иванов", uniqueEmail, "Q1w2e3r4t5y6u7i8o9p0", false, true);
+    }
+
+    /**
+     * Поля в том виде, в котором их отправляет форма страницы: имена атрибутов name,
+     * чекбоксы передаются только когда отмечены.
+     */
+    public Map<String, String> toFormFields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("firstname", firstName);
+        fields.put("lastname", lastName);
+        fields.put("email", email);
+        fields.put("password", password);
+        if (subscribe) {
+            fields.put("newsletter", "1");
+        }
+        if (agree) {
+            fields.put("agree", "1");
+        }
+        return fields;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public boolean isSubscribe() {
+        return subscribe;
+    }
+
+    public boolean isAgree() {
+        return agree;
+    }
+}
@@ -0,0 +1,117 @@
+package org.ibs.http;
+
+import org.ibs.forms.RegistrationData;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Отправка формы регистрации без браузера. Экземпляр соответствует одному посетителю:
+ * хранит свои cookie (сессию OpenCart), а HttpClient с пулом соединений общий для всех
+ * посетителей, поэтому тысячи клиентов не открывают тысячи селекторов.
+ * Не потокобезопасен: один экземпляр используется одним нагрузочным пользователем.
+ */
+public final class RegistrationClient {
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final HttpClient http;
+    private final URI registerUri;
+    private final Duration requestTimeout;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    public RegistrationClient(HttpClient http, URI registerUri, Duration requestTimeout) {
+        this.http = http;
+        this.registerUri = registerUri;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Общий клиент для нагрузки. Редиректы обрабатываются вручную, чтобы не терять Set-Cookie
+     * промежуточных ответов.
+     */
+    public static HttpClient newHttpClient(Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    public RegistrationForm openForm() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(registerUri).GET());
+        if (response.statusCode() != 200) {
+            throw new IOException("Registration page returned HTTP " + response.statusCode());
+        }
+        return RegistrationForm.parse(response.uri(), response.body());
+    }
+
+    public RegistrationOutcome submit(RegistrationForm form, RegistrationData data)
+            throws IOException, InterruptedException {
+        Map<String, String> fields = new LinkedHashMap<>(form.getHiddenFields());
+        fields.putAll(data.toFormFields());
+        HttpRequest.Builder request = HttpRequest.newBuilder(form.getAction())
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("X-Requested-With", "XMLHttpRequest")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(fields)));
+        HttpResponse<String> response = send(request);
+        return RegistrationOutcome.classify(response.statusCode(), response.body());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(withCookies(request), HttpResponse.BodyHandlers.ofString());
+        storeCookies(response);
+        for (int redirect = 0; redirect < MAX_REDIRECTS && isRedirect(response.statusCode()); redirect++) {
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (location == null) {
+                break;
+            }
+            URI target = response.uri().resolve(location);
+            response = http.send(withCookies(HttpRequest.newBuilder(target).GET()), HttpResponse.BodyHandlers.ofString());
+            storeCookies(response);
+        }
+        return response;
+    }
+
+    private HttpRequest withCookies(HttpRequest.Builder request) {
+        request.timeout(requestTimeout);
+        if (!cookies.isEmpty()) {
+            StringJoiner header = new StringJoiner("; ");
+            cookies.forEach((name, value) -> header.add(name + "=" + value));
+            request.header("Cookie", header.toString());
+        }
+        return request.build();
+    }
+
+    private void storeCookies(HttpResponse<?> response) {
+        List<String> setCookies = response.headers().allValues("Set-Cookie");
+        for (String setCookie : setCookies) {
+            String pair = setCookie.split(";", 2)[0];
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    private static String encode(Map<String, String> fields) {
+        StringJoiner body = new StringJoiner("&");
+        fields.forEach((name, value) -> body.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return body.toString();
+    }
+}
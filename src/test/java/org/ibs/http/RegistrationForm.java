@@ -0,0 +1,87 @@
+package org.ibs.http;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Форма регистрации, разобранная из HTML страницы: адрес отправки (в OpenCart он содержит
+ * register_token, привязанный к сессии) и скрытые поля, которые браузер отправил бы вместе с формой.
+ */
+public final class RegistrationForm {
+
+    private static final Pattern FORM = Pattern.compile("<form\\b([^>]*)>(.*?)</form>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTRIBUTE = Pattern.compile("([\\w-]+)\\s*=\\s*(\"([^\"]*)\"|'([^']*)')");
+
+    private final URI action;
+    private final Map<String, String> hiddenFields;
+
+    private RegistrationForm(URI action, Map<String, String> hiddenFields) {
+        this.action = action;
+        this.hiddenFields = hiddenFields;
+    }
+
+    /**
+     * Ищет форму с полем firstname, предпочитая form#form-register.
+     */
+    public static RegistrationForm parse(URI pageUri, String html) {
+        String formAttributes = null;
+        String formBody = null;
+        Matcher form = FORM.matcher(html);
+        while (form.find()) {
+            Map<String, String> attributes = attributes(form.group(1));
+            if (!form.group(2).contains("name=\"firstname\"") && !"form-register".equals(attributes.get("id"))) {
+                continue;
+            }
+            formAttributes = form.group(1);
+            formBody = form.group(2);
+            if ("form-register".equals(attributes.get("id"))) {
+                break;
+            }
+        }
+        if (formBody == null) {
+            throw new IllegalStateException("Registration form not found on " + pageUri);
+        }
+
+        String action = attributes(formAttributes).get("action");
+        URI actionUri = action == null || action.isEmpty() ? pageUri : pageUri.resolve(action);
+
+        Map<String, String> hidden = new LinkedHashMap<>();
+        Matcher input = INPUT.matcher(formBody);
+        while (input.find()) {
+            Map<String, String> attributes = attributes(input.group(1));
+            if ("hidden".equalsIgnoreCase(attributes.get("type")) && attributes.containsKey("name")) {
+                hidden.put(attributes.get("name"), attributes.getOrDefault("value", ""));
+            }
+        }
+        return new RegistrationForm(actionUri, Collections.unmodifiableMap(hidden));
+    }
+
+    public URI getAction() {
+        return action;
+    }
+
+    public Map<String, String> getHiddenFields() {
+        return hiddenFields;
+    }
+
+    private static Map<String, String> attributes(String text) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        Matcher attribute = ATTRIBUTE.matcher(text);
+        while (attribute.find()) {
+            String value = attribute.group(3) != null ? attribute.group(3) : attribute.group(4);
+            attributes.put(attribute.group(1).toLowerCase(), unescape(value));
+        }
+        return attributes;
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&amp;", "&").replace("&quot;", "\"").replace("&#39;", "'")
+                .replace("&lt;", "<").replace("&gt;", ">");
+    }
+}
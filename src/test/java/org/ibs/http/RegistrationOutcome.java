@@ -0,0 +1,68 @@
+package org.ibs.http;
+
+/**
+ * Результат отправки формы регистрации по HTTP.
+ */
+public final class RegistrationOutcome {
+
+    public enum Verdict {
+        ACCEPTED,
+        REJECTED,
+        UNKNOWN
+    }
+
+    private final Verdict verdict;
+    private final int status;
+    private final String details;
+
+    RegistrationOutcome(Verdict verdict, int status, String details) {
+        this.verdict = verdict;
+        this.status = status;
+        this.details = details;
+    }
+
+    /**
+     * OpenCart отвечает на отправку формы JSON с полями error или redirect; страница без скриптов
+     * отвечает HTML с блоками alert-danger/alert-success.
+     */
+    static RegistrationOutcome classify(int status, String body) {
+        String text = body == null ? "" : body.trim();
+        String details = text.length() > 300 ? text.substring(0, 300) + "..." : text;
+        if (status >= 500) {
+            return new RegistrationOutcome(Verdict.UNKNOWN, status, details);
+        }
+        if (text.startsWith("{")) {
+            if (text.contains("\"error\"")) {
+                return new RegistrationOutcome(Verdict.REJECTED, status, details);
+            }
+            if (text.contains("\"redirect\"") || text.contains("\"success\"")) {
+                return new RegistrationOutcome(Verdict.ACCEPTED, status, details);
+            }
+            return new RegistrationOutcome(Verdict.UNKNOWN, status, details);
+        }
+        if (text.contains("alert-danger") || text.contains("text-danger\">")) {
+            return new RegistrationOutcome(Verdict.REJECTED, status, details);
+        }
+        if (text.contains("alert-success") || text.contains("account/success")) {
+            return new RegistrationOutcome(Verdict.ACCEPTED, status, details);
+        }
+        return new RegistrationOutcome(Verdict.UNKNOWN, status, details);
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        return verdict + " (HTTP " + status + "): " + details;
+    }
+}
@@ -0,0 +1,76 @@
+package org.ibs.load;
+
+import org.ibs.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общие для всех пользователей счетчики прогона: гистограммы и ошибки по операциям.
+ */
+public final class LoadContext {
+
+    private static final int ERROR_SAMPLES = 5;
+
+    private final int user;
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, LongAdder> errors;
+    private final ConcurrentLinkedQueue<String> errorSamples;
+
+    LoadContext(int user, Map<String, LatencyHistogram> histograms, Map<String, LongAdder> errors,
+                ConcurrentLinkedQueue<String> errorSamples) {
+        this.user = user;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.errorSamples = errorSamples;
+    }
+
+    /**
+     * Номер пользователя, начиная с 0.
+     */
+    public int getUser() {
+        return user;
+    }
+
+    public <T> T measure(String operation, Operation<T> body) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = body.run();
+            histograms.computeIfAbsent(operation, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            errors.computeIfAbsent(operation, k -> new LongAdder()).increment();
+            sample(operation, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Ошибка итерации вне {@link #measure}, например при получении соединения или ключа.
+     */
+    void iterationFailed(Exception e) {
+        sample("iteration", e);
+    }
+
+    private void sample(String operation, Exception e) {
+        if (errorSamples.size() < ERROR_SAMPLES) {
+            errorSamples.add(operation + ": " + e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Operation<T> {
+
+        T run() throws Exception;
+    }
+
+    static Map<String, LatencyHistogram> newHistograms() {
+        return new ConcurrentHashMap<>();
+    }
+
+    static Map<String, LongAdder> newErrors() {
+        return new ConcurrentHashMap<>();
+    }
+}
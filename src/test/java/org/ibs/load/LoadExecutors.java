@@ -0,0 +1,58 @@
+package org.ibs.load;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполнитель для нагрузочных пользователей. Проект собирается под Java 17, поэтому виртуальные
+ * потоки берутся через reflection: на JDK 21+ каждый пользователь получает свой виртуальный
+ * поток, на JDK 17 - свой платформенный поток с уменьшенным стеком. Пул меньше числа
+ * пользователей не создается: лишние пользователи стояли бы в очереди и стартовали бы уже после
+ * окончания прогона по времени, а отчет показывал бы заявленное, а не реальное число пользователей.
+ */
+public final class LoadExecutors {
+
+    static final int PLATFORM_THREAD_LIMIT = 4096;
+
+    private static final long PLATFORM_THREAD_STACK_BYTES = 256 * 1024;
+
+    private LoadExecutors() {
+    }
+
+    public static ExecutorService forUsers(int users) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            if (users > PLATFORM_THREAD_LIMIT) {
+                throw new IllegalArgumentException("Too many load users for platform threads: " + users
+                        + " (limit " + PLATFORM_THREAD_LIMIT + "), run on JDK 21+ for virtual threads");
+            }
+            return Executors.newFixedThreadPool(users, new LoadThreadFactory());
+        }
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static final class LoadThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(null, runnable, "load-user-" + counter.incrementAndGet(), PLATFORM_THREAD_STACK_BYTES);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
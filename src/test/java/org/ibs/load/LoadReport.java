@@ -0,0 +1,104 @@
+package org.ibs.load;
+
+import org.ibs.metrics.LatencyHistogram;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.ibs.metrics.LatencyHistogram.toMillis;
+
+/**
+ * Итоги нагрузочного прогона: пропускная способность и перцентили задержки по операциям.
+ */
+public final class LoadReport {
+
+    private final int users;
+    private final int peakUsers;
+    private final long elapsedNanos;
+    private final long iterations;
+    private final long failedIterations;
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, LongAdder> errors;
+    private final List<String> errorSamples;
+
+    LoadReport(int users, int peakUsers, long elapsedNanos, long iterations, long failedIterations,
+               Map<String, LatencyHistogram> histograms, Map<String, LongAdder> errors, List<String> errorSamples) {
+        this.users = users;
+        this.peakUsers = peakUsers;
+        this.elapsedNanos = elapsedNanos;
+        this.iterations = iterations;
+        this.failedIterations = failedIterations;
+        this.histograms = new TreeMap<>(histograms);
+        this.errors = new TreeMap<>(errors);
+        this.errorSamples = errorSamples;
+    }
+
+    /**
+     * Сколько пользователей максимум одновременно выполняли итерации. Меньше заявленного числа,
+     * если часть пользователей стартовала позже остальных или не успела стартовать до конца прогона.
+     */
+    public int getPeakUsers() {
+        return peakUsers;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getFailedIterations() {
+        return failedIterations;
+    }
+
+    public List<String> getErrorSamples() {
+        return errorSamples;
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+
+    public long getErrors(String operation) {
+        LongAdder adder = errors.get(operation);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long getTotalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public double getThroughput(String operation) {
+        LatencyHistogram histogram = histograms.get(operation);
+        return histogram == null ? 0 : histogram.getCount() / getElapsedSeconds();
+    }
+
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Пользователей: %d, одновременно до %d (%s), время: %.1f с, итераций: %d, неуспешных: %d%n",
+                users, peakUsers, LoadExecutors.virtualThreadsAvailable() ? "виртуальные потоки" : "платформенные потоки",
+                getElapsedSeconds(), iterations, failedIterations));
+        text.append(String.format("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        // Операция, у которой не было ни одного успешного вызова, попадает в отчет только с ошибками
+        Set<String> operations = new TreeSet<>(histograms.keySet());
+        operations.addAll(errors.keySet());
+        for (String operation : operations) {
+            LatencyHistogram histogram = histograms.getOrDefault(operation, new LatencyHistogram());
+            text.append(String.format("%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation, histogram.getCount(), getErrors(operation), getThroughput(operation),
+                    toMillis(histogram.percentileNanos(50)), toMillis(histogram.percentileNanos(95)),
+                    toMillis(histogram.percentileNanos(99)), toMillis(histogram.getMaxNanos())));
+        }
+        for (String sample : errorSamples) {
+            text.append("error: ").append(sample).append('\n');
+        }
+        return text.toString();
+    }
+}
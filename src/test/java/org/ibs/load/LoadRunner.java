@@ -0,0 +1,99 @@
+package org.ibs.load;
+
+import org.ibs.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Запуск сценария от множества одновременных пользователей: либо в течение заданного времени,
+ * либо на фиксированное число итераций каждого пользователя. В отчет попадает и достигнутая
+ * одновременность - сколько пользователей максимум выполняли итерации в один момент.
+ */
+public final class LoadRunner {
+
+    private LoadRunner() {
+    }
+
+    public static LoadReport runForDuration(int users, Duration duration, LoadScenario scenario) throws InterruptedException {
+        return run(users, Long.MAX_VALUE, duration, scenario);
+    }
+
+    public static LoadReport runIterations(int users, long iterationsPerUser, LoadScenario scenario) throws InterruptedException {
+        return run(users, iterationsPerUser, null, scenario);
+    }
+
+    private static LoadReport run(int users, long iterationsPerUser, Duration duration, LoadScenario scenario)
+            throws InterruptedException {
+        Map<String, LatencyHistogram> histograms = LoadContext.newHistograms();
+        Map<String, LongAdder> errors = LoadContext.newErrors();
+        ConcurrentLinkedQueue<String> errorSamples = new ConcurrentLinkedQueue<>();
+        LongAdder iterations = new LongAdder();
+        LongAdder failedIterations = new LongAdder();
+        AtomicInteger activeUsers = new AtomicInteger();
+        AtomicInteger peakUsers = new AtomicInteger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(users);
+        long[] deadline = new long[1];
+
+        ExecutorService executor = LoadExecutors.forUsers(users);
+        List<LoadContext> contexts = new ArrayList<>(users);
+        for (int user = 0; user < users; user++) {
+            contexts.add(new LoadContext(user, histograms, errors, errorSamples));
+        }
+        try {
+            for (LoadContext context : contexts) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        if (System.nanoTime() >= deadline[0]) {
+                            return;
+                        }
+                        peakUsers.accumulateAndGet(activeUsers.incrementAndGet(), Math::max);
+                        try {
+                            for (long i = 0; i < iterationsPerUser && System.nanoTime() < deadline[0]; i++) {
+                                try {
+                                    scenario.iteration(context);
+                                    iterations.increment();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    return;
+                                } catch (Exception e) {
+                                    failedIterations.increment();
+                                    context.iterationFailed(e);
+                                }
+                            }
+                        } finally {
+                            activeUsers.decrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+
+            long startNanos = System.nanoTime();
+            deadline[0] = duration != null ? startNanos + duration.toNanos() : Long.MAX_VALUE;
+            start.countDown();
+            finished.await();
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            return new LoadReport(users, peakUsers.get(), elapsedNanos, iterations.sum(), failedIterations.sum(),
+                    histograms, errors, new ArrayList<>(errorSamples));
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
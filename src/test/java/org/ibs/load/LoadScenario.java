@@ -0,0 +1,11 @@
+package org.ibs.load;
+
+/**
+ * Одна итерация нагрузочного пользователя. Операции внутри итерации измеряются через
+ * {@link LoadContext#measure}; исключение прерывает итерацию и учитывается как ошибка.
+ */
+@FunctionalInterface
+public interface LoadScenario {
+
+    void iteration(LoadContext context) throws Exception;
+}
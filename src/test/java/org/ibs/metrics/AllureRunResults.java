@@ -0,0 +1,35 @@
+package org.ibs.metrics;
+
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.TestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Запоминает результаты Allure, записанные за прогон, чтобы сводки уровня прогона
+ * ({@link StepLatencyPlugin}) можно было приложить к ним через общий контейнер, а не добавлять
+ * в отчет лишний тест. Регистрируется через META-INF/services.
+ */
+public class AllureRunResults implements TestLifecycleListener {
+
+    private static final ConcurrentLinkedQueue<String> WRITTEN = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void afterTestWrite(TestResult result) {
+        WRITTEN.add(result.getUuid());
+    }
+
+    /**
+     * UUID результатов, записанных с прошлого вызова.
+     */
+    static List<String> drain() {
+        List<String> uuids = new ArrayList<>();
+        String uuid;
+        while ((uuid = WRITTEN.poll()) != null) {
+            uuids.add(uuid);
+        }
+        return uuids;
+    }
+}
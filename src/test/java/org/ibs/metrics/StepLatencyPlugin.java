@@ -0,0 +1,228 @@
+package org.ibs.metrics;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.TestResultContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.ibs.metrics.LatencyHistogram.toMillis;
+
+/**
+ * Плагин Cucumber, который собирает гистограммы длительности по определениям шагов и хуков
+ * за весь прогон. Длительность берется из результата TestStepFinished, поэтому плагину не нужно
+ * сопоставлять события начала и конца шага; запись в гистограмму не блокирует потоки
+ * параллельного прогона.
+ *
+ * После прогона пишет JSON (путь - аргумент плагина, по умолчанию target/step-latency.json)
+ * и прикладывает ту же таблицу в Allure к завершающей фикстуре "Длительность шагов",
+ * общей для всех сценариев прогона (см. {@link AllureRunResults}).
+ * Подключение: plugin "org.ibs.metrics.StepLatencyPlugin:target/step-latency.json".
+ */
+public class StepLatencyPlugin implements ConcurrentEventListener {
+
+    private static final String DEFAULT_OUTPUT = "target/step-latency.json";
+    private static final int CONSOLE_TOP = 10;
+
+    private final Path output;
+    private final Map<String, StepStats> stats = new ConcurrentHashMap<>();
+
+    public StepLatencyPlugin() {
+        this(DEFAULT_OUTPUT);
+    }
+
+    public StepLatencyPlugin(String output) {
+        this.output = Paths.get(output);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onRunFinished());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        TestStep step = event.getTestStep();
+        String type;
+        String name;
+        if (step instanceof PickleStepTestStep) {
+            type = "step";
+            name = ((PickleStepTestStep) step).getPattern();
+        } else if (step instanceof HookTestStep) {
+            type = "hook";
+            // Тип хука одинаков у всех @Before/@After, различает их только метод
+            name = ((HookTestStep) step).getHookType().name() + " " + step.getCodeLocation();
+        } else {
+            return;
+        }
+        String key = type + ":" + name + ":" + step.getCodeLocation();
+
+        Status status = event.getResult().getStatus();
+        if (status == Status.SKIPPED || status == Status.UNDEFINED) {
+            return;
+        }
+        StepStats entry = stats.computeIfAbsent(key, k -> new StepStats(type, name, step.getCodeLocation()));
+        entry.histogram.record(event.getResult().getDuration().toNanos());
+        if (status != Status.PASSED) {
+            entry.failed.increment();
+        }
+    }
+
+    private void onRunFinished() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        List<StepStats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparingLong((StepStats s) -> s.histogram.getTotalNanos()).reversed());
+
+        String json = toJson(sorted);
+        try {
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            Files.write(output, json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to write step latency report: " + e.getMessage());
+        }
+
+        String table = toTable(sorted);
+        System.out.println("Самые долгие шаги прогона:");
+        System.out.print(toTable(sorted.subList(0, Math.min(CONSOLE_TOP, sorted.size()))));
+        attachToAllure(table, json);
+    }
+
+    // Вне сценария у Allure нет текущего теста, поэтому таблица прикладывается к завершающей фикстуре
+    // контейнера, объединяющего все результаты прогона, - так Allure показывает и @AfterAll
+    private void attachToAllure(String table, String json) {
+        List<String> results = AllureRunResults.drain();
+        if (results.isEmpty()) {
+            return;
+        }
+        try {
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            String containerUuid = UUID.randomUUID().toString();
+            String fixtureUuid = UUID.randomUUID().toString();
+            long now = Instant.now().toEpochMilli();
+            lifecycle.startTestContainer(new TestResultContainer()
+                    .setUuid(containerUuid)
+                    .setName("Метрики прогона")
+                    .setChildren(results)
+                    .setStart(now));
+            lifecycle.startTearDownFixture(containerUuid, fixtureUuid, new FixtureResult()
+                    .setName("Длительность шагов")
+                    .setStatus(io.qameta.allure.model.Status.PASSED)
+                    .setStart(now));
+            lifecycle.addAttachment("Длительность шагов", "text/plain", "txt", table.getBytes(StandardCharsets.UTF_8));
+            lifecycle.addAttachment("Длительность шагов (JSON)", "application/json", "json",
+                    json.getBytes(StandardCharsets.UTF_8));
+            lifecycle.updateFixture(fixtureUuid, fixture -> fixture.setStop(Instant.now().toEpochMilli()));
+            lifecycle.stopFixture(fixtureUuid);
+            lifecycle.updateTestContainer(containerUuid, container -> container.setStop(Instant.now().toEpochMilli()));
+            lifecycle.stopTestContainer(containerUuid);
+            lifecycle.writeTestContainer(containerUuid);
+        } catch (Exception e) {
+            System.err.println("Failed to attach step latency report to Allure: " + e.getMessage());
+        }
+    }
+
+    private static String toTable(List<StepStats> rows) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-5s %7s %6s %10s %10s %10s %10s %10s %12s  %s%n",
+                "type", "count", "failed", "min ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "total ms", "step"));
+        for (StepStats row : rows) {
+            LatencyHistogram h = row.histogram;
+            text.append(String.format("%-5s %7d %6d %10.1f %10.1f %10.1f %10.1f %10.1f %12.1f  %s%n",
+                    row.type, h.getCount(), row.failed.sum(), toMillis(h.getMinNanos()),
+                    toMillis(h.percentileNanos(50)), toMillis(h.percentileNanos(95)),
+                    toMillis(h.percentileNanos(99)), toMillis(h.getMaxNanos()), toMillis(h.getTotalNanos()), row.name));
+        }
+        return text.toString();
+    }
+
+    private static String toJson(List<StepStats> rows) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"generatedAt\": \"").append(Instant.now()).append("\",\n  \"steps\": [");
+        for (int i = 0; i < rows.size(); i++) {
+            StepStats row = rows.get(i);
+            LatencyHistogram h = row.histogram;
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"type\": \"").append(row.type)
+                    .append("\", \"name\": \"").append(escape(row.name))
+                    .append("\", \"location\": \"").append(escape(row.location))
+                    .append("\", \"count\": ").append(h.getCount())
+                    .append(", \"failed\": ").append(row.failed.sum())
+                    .append(", \"minMs\": ").append(format(h.getMinNanos()))
+                    .append(", \"meanMs\": ").append(format(h.getMeanNanos()))
+                    .append(", \"p50Ms\": ").append(format(h.percentileNanos(50)))
+                    .append(", \"p95Ms\": ").append(format(h.percentileNanos(95)))
+                    .append(", \"p99Ms\": ").append(format(h.percentileNanos(99)))
+                    .append(", \"maxMs\": ").append(format(h.getMaxNanos()))
+                    .append(", \"totalMs\": ").append(format(h.getTotalNanos()))
+                    .append('}');
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", toMillis(nanos));
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': escaped.append("\\\""); break;
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static final class StepStats {
+        private final String type;
+        private final String name;
+        private final String location;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder failed = new LongAdder();
+
+        private StepStats(String type, String name, String location) {
+            this.type = type;
+            this.name = name;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.ibs.preflight;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assumptions.abort;
+
+/**
+ * Предохранитель зависимости на весь прогон. Открывается сразу по результату pre-flight
+ * или после failureThreshold подряд неудачных подключений из сценариев; пока он открыт,
+ * зависимые сценарии пропускаются без попыток подключения. Через openMillis предохранитель
+ * пропускает один пробный сценарий: успех закрывает его, неудача снова открывает.
+ */
+public final class CircuitBreaker {
+
+    private static final Map<Dependency, CircuitBreaker> BREAKERS = new EnumMap<>(Dependency.class);
+
+    private final Dependency dependency;
+    private int failureThreshold = 2;
+    private long openMillis = 60_000;
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean open;
+    private boolean trialInProgress;
+    private String reason;
+
+    private CircuitBreaker(Dependency dependency) {
+        this.dependency = dependency;
+    }
+
+    public static synchronized CircuitBreaker of(Dependency dependency) {
+        return BREAKERS.computeIfAbsent(dependency, CircuitBreaker::new);
+    }
+
+    public synchronized void configure(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * null, если сценарий может обращаться к зависимости, иначе причина пропуска.
+     */
+    public synchronized String checkAllowed() {
+        if (!open) {
+            return null;
+        }
+        if (!trialInProgress && System.currentTimeMillis() - openedAt >= openMillis) {
+            trialInProgress = true;
+            return null;
+        }
+        return dependency.getTitle() + " недоступен: " + reason;
+    }
+
+    /**
+     * Вызывается в начале хука, который подключается к зависимости: при открытом предохранителе
+     * сценарий прерывается и попадает в отчет пропущенным с причиной.
+     */
+    public void abortIfOpen() {
+        abortIfAnyOpen(dependency);
+    }
+
+    /**
+     * То же для сценария, которому нужны несколько зависимостей. Если один предохранитель уже выдал
+     * пробный сценарий, а следующий сценарий не пропускает, пробный возвращается: иначе об исходе
+     * пробы никто бы не сообщил и первый предохранитель остался бы полуоткрытым до конца прогона.
+     */
+    public static void abortIfAnyOpen(Dependency... dependencies) {
+        List<CircuitBreaker> allowed = new ArrayList<>();
+        for (Dependency dependency : dependencies) {
+            CircuitBreaker breaker = of(dependency);
+            boolean wasOpen;
+            String reason;
+            synchronized (breaker) {
+                wasOpen = breaker.open;
+                reason = breaker.checkAllowed();
+            }
+            if (reason != null) {
+                allowed.forEach(CircuitBreaker::releaseTrial);
+                abort("Сценарий пропущен: " + reason);
+            }
+            if (wasOpen) {
+                allowed.add(breaker);
+            }
+        }
+    }
+
+    /**
+     * Отменяет выданный пробный сценарий без результата: следующий сценарий снова сможет стать пробным.
+     */
+    synchronized void releaseTrial() {
+        trialInProgress = false;
+    }
+
+    public synchronized void recordSuccess() {
+        if (open) {
+            System.out.println("Circuit breaker closed: " + dependency.getTitle() + " снова доступен");
+        }
+        open = false;
+        trialInProgress = false;
+        consecutiveFailures = 0;
+        reason = null;
+    }
+
+    public synchronized void recordFailure(String failure) {
+        consecutiveFailures++;
+        if (open || consecutiveFailures >= failureThreshold) {
+            trip(failure);
+        }
+    }
+
+    /**
+     * Открывает предохранитель без накопления неудач, например по результату pre-flight.
+     */
+    public synchronized void trip(String failure) {
+        if (!open || trialInProgress) {
+            System.out.println("Circuit breaker opened: " + dependency.getTitle() + " - " + failure);
+        }
+        open = true;
+        trialInProgress = false;
+        openedAt = System.currentTimeMillis();
+        reason = failure;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Краткая причина для отчета: тип исключения и первая строка сообщения
+     * (сообщения WebDriver содержат многострочное описание сессии).
+     */
+    public static String describe(Throwable error) {
+        String message = error.getMessage();
+        if (message == null || message.isBlank()) {
+            return error.getClass().getSimpleName();
+        }
+        int lineEnd = message.indexOf('\n');
+        return error.getClass().getSimpleName() + ": " + (lineEnd >= 0 ? message.substring(0, lineEnd) : message);
+    }
+}
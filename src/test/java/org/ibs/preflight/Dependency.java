@@ -0,0 +1,21 @@
+package org.ibs.preflight;
+
+/**
+ * Внешние зависимости сценариев, за которыми следит {@link CircuitBreaker}.
+ */
+public enum Dependency {
+
+    SELENOID("Selenoid"),
+    REGISTRATION_PAGE("Страница регистрации"),
+    DATABASE("Сервер БД");
+
+    private final String title;
+
+    Dependency(String title) {
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
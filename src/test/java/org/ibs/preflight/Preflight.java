@@ -0,0 +1,126 @@
+package org.ibs.preflight;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Параллельная проверка доступности зависимостей перед прогоном с жестким таймаутом.
+ * Зависимость считается доступной, если сервер принял соединение (для HTTP - вернул любой
+ * ответ ниже 500): цель проверки - отличить отказ инфраструктуры от ошибок в тестах.
+ */
+public final class Preflight {
+
+    private final Duration timeout;
+    private final List<Check> checks = new ArrayList<>();
+
+    public Preflight(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Preflight http(Dependency dependency, String url) {
+        checks.add(new Check(dependency, url, () -> probeHttp(url)));
+        return this;
+    }
+
+    public Preflight tcp(Dependency dependency, String host, int port) {
+        checks.add(new Check(dependency, host + ":" + port, () -> probeTcp(host, port)));
+        return this;
+    }
+
+    /**
+     * Выполняет проверки параллельно; общее время не больше timeout плюс запас на запуск потоков.
+     */
+    public List<ProbeResult> run() {
+        List<ProbeResult> results = new ArrayList<>();
+        if (checks.isEmpty()) {
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(checks.size(), runnable -> {
+            Thread thread = new Thread(runnable, "preflight");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            long started = System.nanoTime();
+            for (Check check : checks) {
+                futures.add(executor.submit(check.probe::call));
+            }
+            long deadline = started + timeout.toNanos() + TimeUnit.MILLISECONDS.toNanos(500);
+            for (int i = 0; i < checks.size(); i++) {
+                Check check = checks.get(i);
+                boolean available;
+                String details;
+                try {
+                    details = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    available = true;
+                } catch (TimeoutException e) {
+                    details = "нет ответа за " + timeout.toMillis() + " мс";
+                    available = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    details = "проверка прервана";
+                    available = false;
+                } catch (Exception e) {
+                    details = CircuitBreaker.describe(e.getCause() != null ? e.getCause() : e);
+                    available = false;
+                }
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                results.add(new ProbeResult(check.dependency, check.target, available, millis, details));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private String probeHttp(String url) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 500) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return "HTTP " + response.statusCode();
+    }
+
+    private String probeTcp(String host, int port) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), (int) timeout.toMillis());
+            return "connected";
+        }
+    }
+
+    @FunctionalInterface
+    private interface Probe {
+        String call() throws Exception;
+    }
+
+    private static final class Check {
+        private final Dependency dependency;
+        private final String target;
+        private final Probe probe;
+
+        private Check(Dependency dependency, String target, Probe probe) {
+            this.dependency = dependency;
+            this.target = target;
+            this.probe = probe;
+        }
+    }
+}
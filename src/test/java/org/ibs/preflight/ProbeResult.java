@@ -0,0 +1,39 @@
+package org.ibs.preflight;
+
+/**
+ * Результат проверки одной зависимости перед прогоном.
+ */
+public final class ProbeResult {
+
+    private final Dependency dependency;
+    private final String target;
+    private final boolean available;
+    private final long millis;
+    private final String details;
+
+    ProbeResult(Dependency dependency, String target, boolean available, long millis, String details) {
+        this.dependency = dependency;
+        this.target = target;
+        this.available = available;
+        this.millis = millis;
+        this.details = details;
+    }
+
+    public Dependency getDependency() {
+        return dependency;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-22s %-4s %6d ms  %s (%s)", dependency.getTitle(), available ? "UP" : "DOWN",
+                millis, target, details);
+    }
+}
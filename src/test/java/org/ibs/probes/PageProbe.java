@@ -0,0 +1,69 @@
+package org.ibs.probes;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Набор признаков состояния страницы (фрагмент URL, CSS-селектор, текст в разметке), который
+ * проверяется одним скриптом в браузере. Вместо передачи всей страницы в JVM браузер
+ * возвращает только название первого сработавшего признака.
+ * Признаки проверяются в порядке добавления.
+ */
+public class PageProbe {
+
+    private static final String PROBE_SCRIPT =
+            "var checks = arguments[0], html = null;" +
+            "for (var i = 0; i < checks.length; i++) {" +
+            "  var check = checks[i], matched = false;" +
+            "  if (check.type === 'url') {" +
+            "    matched = window.location.href.indexOf(check.value) !== -1;" +
+            "  } else if (check.type === 'selector') {" +
+            "    matched = document.querySelector(check.value) !== null;" +
+            "  } else if (check.type === 'text') {" +
+            "    if (html === null) { html = document.documentElement.outerHTML; }" +
+            "    matched = html.indexOf(check.value) !== -1;" +
+            "  }" +
+            "  if (matched) { return check.type + ':' + check.value; }" +
+            "}" +
+            "return null;";
+
+    private final List<Map<String, String>> checks = new ArrayList<>();
+
+    public PageProbe urlContains(String fragment) {
+        return add("url", fragment);
+    }
+
+    public PageProbe selector(String cssSelector) {
+        return add("selector", cssSelector);
+    }
+
+    public PageProbe text(String text) {
+        return add("text", text);
+    }
+
+    public ProbeVerdict evaluate(WebDriver driver) {
+        Object indicator = ((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT, checks);
+        return new ProbeVerdict(indicator != null ? indicator.toString() : null);
+    }
+
+    /**
+     * Вариант для опроса через ожидание: null, пока ни один признак не сработал.
+     */
+    public ProbeVerdict matchOrNull(WebDriver driver) {
+        ProbeVerdict verdict = evaluate(driver);
+        return verdict.isMatched() ? verdict : null;
+    }
+
+    private PageProbe add(String type, String value) {
+        Map<String, String> check = new HashMap<>();
+        check.put("type", type);
+        check.put("value", value);
+        checks.add(check);
+        return this;
+    }
+}
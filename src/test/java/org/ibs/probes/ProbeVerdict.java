@@ -0,0 +1,26 @@
+package org.ibs.probes;
+
+/**
+ * Результат {@link PageProbe}: сработавший признак в виде "тип:значение" или его отсутствие.
+ */
+public final class ProbeVerdict {
+
+    private final String indicator;
+
+    ProbeVerdict(String indicator) {
+        this.indicator = indicator;
+    }
+
+    public boolean isMatched() {
+        return indicator != null;
+    }
+
+    public String getIndicator() {
+        return indicator;
+    }
+
+    @Override
+    public String toString() {
+        return isMatched() ? indicator : "no indicator matched";
+    }
+}
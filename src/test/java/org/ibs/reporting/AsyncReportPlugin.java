@@ -0,0 +1,167 @@
+package org.ibs.reporting;
+
+import io.cucumber.core.plugin.HtmlFormatter;
+import io.cucumber.core.plugin.JUnitFormatter;
+import io.cucumber.core.plugin.JsonFormatter;
+import io.cucumber.core.plugin.PrettyFormatter;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.Event;
+import io.cucumber.plugin.event.EventPublisher;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отчеты Cucumber (pretty, html, json, junit) вне потока выполнения сценариев: плагин раздает
+ * события по очередям {@link ReportSink}, каждый формат пишется своим потоком через буфер
+ * FILE_BUFFER_BYTES. В конце прогона плагин дожидается записи всех отчетов.
+ *
+ * Набор форматов выбирается профилем -Dreport.profile (или REPORT_PROFILE):
+ * full - pretty, html, json, junit; ci - json и junit без вывода в консоль; minimal - только json
+ * (нужен для шардирования по длительностям). -Dreport.formats=json,junit задает список явно.
+ * Allure и StepLatencyPlugin подключаются в TestRunner напрямую: Allure хранит текущий сценарий
+ * в потоке выполнения, и аннотации @Step и вложения из шагов без этого не работают.
+ * Аргумент плагина - каталог отчетов, по умолчанию target.
+ */
+public class AsyncReportPlugin implements ConcurrentEventListener {
+
+    private static final int FILE_BUFFER_BYTES = 256 * 1024;
+    private static final long FINISH_TIMEOUT_MILLIS = 120_000;
+
+    private final List<ReportSink> sinks = new ArrayList<>();
+    private final AtomicInteger runFinishedEvents = new AtomicInteger();
+
+    public AsyncReportPlugin() throws IOException {
+        this("target");
+    }
+
+    public AsyncReportPlugin(String directory) throws IOException {
+        Path base = Paths.get(directory);
+        for (String format : selectFormats()) {
+            switch (format) {
+                case "pretty":
+                    sinks.add(new ReportSink(format, new PrettyFormatter(console()), console()));
+                    break;
+                case "html":
+                    OutputStream html = file(base.resolve("cucumber-reports.html"));
+                    sinks.add(new ReportSink(format, new HtmlFormatter(html), html));
+                    break;
+                case "json":
+                    OutputStream json = file(base.resolve("cucumber-reports/cucumber.json"));
+                    sinks.add(new ReportSink(format, new JsonFormatter(json), json));
+                    break;
+                case "junit":
+                    OutputStream junit = file(base.resolve("cucumber-reports/cucumber.xml"));
+                    sinks.add(new ReportSink(format, new JUnitFormatter(junit), junit));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown report format: " + format);
+            }
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        sinks.forEach(ReportSink::start);
+        publisher.registerHandlerFor(Event.class, this::fanOut);
+        publisher.registerHandlerFor(Envelope.class, this::fanOut);
+    }
+
+    private void fanOut(Object event) {
+        for (ReportSink sink : sinks) {
+            sink.offer(event);
+        }
+        if (ReportSink.isRunFinished(event) && runFinishedEvents.incrementAndGet() == ReportSink.RUN_FINISHED_EVENTS) {
+            awaitReports();
+        }
+    }
+
+    private void awaitReports() {
+        long started = System.nanoTime();
+        for (ReportSink sink : sinks) {
+            try {
+                if (!sink.awaitFinished(FINISH_TIMEOUT_MILLIS)) {
+                    System.err.println("Report '" + sink.getName() + "' was not finished in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (ReportSink sink : sinks) {
+            names.add(sink.getName() + " (" + sink.getDispatched() + " событий)");
+        }
+        System.out.printf("Отчеты записаны: %s, ожидание после прогона %d мс%n",
+                String.join(", ", names), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    static Set<String> selectFormats() {
+        String formats = setting("report.formats", "REPORT_FORMATS");
+        if (formats != null) {
+            Set<String> selected = new LinkedHashSet<>();
+            for (String format : formats.split(",")) {
+                if (!format.isBlank()) {
+                    selected.add(format.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+            return selected;
+        }
+        String profile = setting("report.profile", "REPORT_PROFILE");
+        switch (profile == null ? "full" : profile.toLowerCase(Locale.ROOT)) {
+            case "full":
+                return new LinkedHashSet<>(List.of("pretty", "html", "json", "junit"));
+            case "ci":
+                return new LinkedHashSet<>(List.of("json", "junit"));
+            case "minimal":
+                return new LinkedHashSet<>(List.of("json"));
+            default:
+                throw new IllegalArgumentException("Unknown report.profile: " + profile + " (full, ci, minimal)");
+        }
+    }
+
+    private static String setting(String property, String environment) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(environment);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static OutputStream file(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        return new BufferedOutputStream(Files.newOutputStream(path), FILE_BUFFER_BYTES);
+    }
+
+    // Форматтеры закрывают свой поток в конце прогона, System.out при этом закрываться не должен
+    private static OutputStream console() {
+        return new FilterOutputStream(System.out) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
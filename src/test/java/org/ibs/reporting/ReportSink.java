@@ -0,0 +1,180 @@
+package org.ibs.reporting;
+
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.EventListener;
+import io.cucumber.plugin.event.Event;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCaseEvent;
+import io.cucumber.plugin.event.TestRunFinished;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Один формат отчета на собственном потоке. Поток выполнения только кладет событие в очередь
+ * без блокировок, а форматтер получает события в потоке sink'а через собственный EventPublisher.
+ * Форматтеры, не рассчитанные на параллельный прогон (EventListener, например json), получают
+ * события в каноническом порядке после окончания прогона, как их получает Cucumber.
+ */
+final class ReportSink implements EventPublisher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    // Конец прогона приходит дважды: событие TestRunFinished (json, pretty) и сообщение testRunFinished (html, junit)
+    static final int RUN_FINISHED_EVENTS = 2;
+
+    private final String name;
+    private final OutputStream output;
+    private final boolean canonicalOrder;
+    private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Class<?>, List<EventHandler<Object>>> handlers = new ConcurrentHashMap<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final Thread worker;
+    private long dispatched;
+
+    ReportSink(String name, ConcurrentEventListener formatter, OutputStream output) {
+        this(name, output, false);
+        formatter.setEventPublisher(this);
+    }
+
+    ReportSink(String name, EventListener formatter, OutputStream output) {
+        this(name, output, true);
+        formatter.setEventPublisher(this);
+    }
+
+    private ReportSink(String name, OutputStream output, boolean canonicalOrder) {
+        this.name = name;
+        this.output = output;
+        this.canonicalOrder = canonicalOrder;
+        this.worker = new Thread(this::run, "report-" + name);
+        this.worker.setDaemon(true);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void offer(Object event) {
+        queue.offer(event);
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Ждет, пока форматтер обработает TestRunFinished и отчет будет записан.
+     */
+    boolean awaitFinished(long timeoutMillis) throws InterruptedException {
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+        handlers.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add((EventHandler<Object>) handler);
+    }
+
+    @Override
+    public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+        List<EventHandler<Object>> registered = handlers.get(eventType);
+        if (registered != null) {
+            registered.remove(handler);
+        }
+    }
+
+    private void run() {
+        List<Object> buffered = new ArrayList<>();
+        int runFinishedEvents = 0;
+        try {
+            while (true) {
+                Object event = queue.poll();
+                if (event == null) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                if (canonicalOrder) {
+                    buffered.add(event);
+                } else {
+                    dispatch(event);
+                }
+                if (isRunFinished(event) && ++runFinishedEvents == RUN_FINISHED_EVENTS) {
+                    break;
+                }
+            }
+            if (canonicalOrder) {
+                buffered.sort(CANONICAL_ORDER);
+                buffered.forEach(this::dispatch);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Report '" + name + "' failed: " + e.getMessage());
+        } finally {
+            try {
+                output.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close report '" + name + "': " + e.getMessage());
+            }
+            finished.countDown();
+        }
+    }
+
+    // Как в EventBus Cucumber: обработчики точного класса события и обработчики Event.class
+    private void dispatch(Object event) {
+        dispatched++;
+        if (event instanceof Event) {
+            send(Event.class, event);
+        }
+        send(event.getClass(), event);
+    }
+
+    private void send(Class<?> type, Object event) {
+        List<EventHandler<Object>> registered = handlers.get(type);
+        if (registered != null) {
+            for (EventHandler<Object> handler : registered) {
+                handler.receive(event);
+            }
+        }
+    }
+
+    long getDispatched() {
+        return dispatched;
+    }
+
+    /**
+     * Сначала события прогона (исходники, определения шагов), затем события сценариев, сгруппированные
+     * по сценарию в порядке файла и строки, последними - события конца прогона. Сортировка устойчивая,
+     * поэтому порядок событий внутри сценария сохраняется.
+     */
+    private static final Comparator<Object> CANONICAL_ORDER = Comparator
+            .comparingInt(ReportSink::rank)
+            .thenComparing(event -> event instanceof TestCaseEvent
+                    ? ((TestCaseEvent) event).getTestCase().getUri().toString() : "")
+            .thenComparingInt(event -> event instanceof TestCaseEvent
+                    ? ((TestCaseEvent) event).getTestCase().getLocation().getLine() : 0)
+            .thenComparing(event -> event instanceof TestCaseEvent
+                    ? ((TestCaseEvent) event).getTestCase().getId().toString() : "");
+
+    static boolean isRunFinished(Object event) {
+        return event instanceof TestRunFinished
+                || event instanceof Envelope && ((Envelope) event).getTestRunFinished().isPresent();
+    }
+
+    private static int rank(Object event) {
+        if (isRunFinished(event)) {
+            return 2;
+        }
+        return event instanceof TestCaseEvent ? 1 : 0;
+    }
+}
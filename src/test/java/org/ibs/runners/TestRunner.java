@@ -9,15 +9,26 @@ import org.junit.platform.suite.api.Suite;
 import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
 import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
 
-@Suite
+/**
+ * Параллельный режим включается через свойства Maven (см. pom.xml):
+ * parallel.enabled, parallel.strategy (fixed / dynamic), parallel.threads, parallel.factor.
+ * Каждый поток получает собственные экземпляры классов шагов, поэтому драйвер и соединение с БД
+ * живут только в рамках своего сценария. Сценарии с тегом @Database изолированы транзакцией
+ * сценария и блочной выдачей идентификаторов и также выполняются параллельно.
+ * StepLatencyPlugin после прогона пишет гистограммы длительности шагов в step-latency.json и в Allure.
+ * Для запуска на нескольких агентах сценарии делятся по шардам с учетом длительностей прошлого прогона:
+ * -Dshard.index / -Dshard.count (или SHARD_INDEX / SHARD_COUNT), см. {@link org.ibs.sharding.ShardFilter}.
+ * Шард может остаться пустым, если шардов больше, чем сценариев, поэтому это не ошибка.
+ * Отчеты pretty, html, json и junit пишутся в фоне {@link org.ibs.reporting.AsyncReportPlugin},
+ * набор выбирается -Dreport.profile=full / ci / minimal.
+ */
+@Suite(failIfNoTests = false)
 @IncludeEngines("cucumber")
 @SelectClasspathResource("features")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "org.ibs.steps")
 @ConfigurationParameter(key = PLUGIN_PROPERTY_NAME,
         value = "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm, " +
-                "pretty, " +
-                "html:target/cucumber-reports.html, " +
-                "json:target/cucumber-reports/cucumber.json, " +
-                "junit:target/cucumber-reports/cucumber.xml")
+                "org.ibs.reporting.AsyncReportPlugin:target, " +
+                "org.ibs.metrics.StepLatencyPlugin:target/cucumber-reports/step-latency.json")
 public class TestRunner {
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package org.ibs.sharding;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Длительности сценариев из отчетов cucumber.json прошлых прогонов. Ключ сценария -
+ * путь feature-файла без "classpath:"/"file:" и строка сценария (строка примера для Scenario Outline).
+ * Длительность - сумма шагов и хуков сценария вместе с шагами Background.
+ */
+public final class ScenarioDurations {
+
+    private final Map<String, Long> nanosByScenario;
+
+    private ScenarioDurations(Map<String, Long> nanosByScenario) {
+        this.nanosByScenario = nanosByScenario;
+    }
+
+    /**
+     * Отсутствующий или нечитаемый файл - ошибка: агент, не прочитавший общий артефакт, построил бы
+     * план, отличный от остальных, и часть сценариев выполнилась бы дважды, а часть ни разу.
+     */
+    public static ScenarioDurations load(List<String> files) {
+        Map<String, Long> durations = new HashMap<>();
+        for (String file : files) {
+            Path path = Paths.get(file);
+            if (!Files.isRegularFile(path)) {
+                throw new IllegalStateException("Scenario durations file not found: " + path.toAbsolutePath()
+                        + " (shard.durations must point to the same shared report on every agent)");
+            }
+            try {
+                read(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), durations);
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Failed to read scenario durations from " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return new ScenarioDurations(durations);
+    }
+
+    public static String key(String featureUri, long line) {
+        String path = featureUri;
+        for (String scheme : new String[]{"classpath:", "file:"}) {
+            if (path.startsWith(scheme)) {
+                path = path.substring(scheme.length());
+            }
+        }
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return path + ":" + line;
+    }
+
+    public Long getNanos(String key) {
+        return nanosByScenario.get(key);
+    }
+
+    public int size() {
+        return nanosByScenario.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void read(String json, Map<String, Long> durations) {
+        List<Map<String, Object>> features = (List<Map<String, Object>>) new Json().toType(json, List.class);
+        for (Map<String, Object> feature : features) {
+            String uri = String.valueOf(feature.get("uri"));
+            List<Map<String, Object>> elements = (List<Map<String, Object>>) feature.get("elements");
+            if (elements == null) {
+                continue;
+            }
+            long background = 0;
+            for (Map<String, Object> element : elements) {
+                long nanos = sum(element.get("before")) + sum(element.get("steps")) + sum(element.get("after"));
+                if ("background".equals(element.get("type"))) {
+                    background = nanos;
+                    continue;
+                }
+                long line = ((Number) element.get("line")).longValue();
+                // При нескольких файлах сценарий мог выполняться в разных шардах - берем последнее значение
+                durations.put(key(uri, line), nanos + background);
+                background = 0;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long sum(Object steps) {
+        if (!(steps instanceof List)) {
+            return 0;
+        }
+        long total = 0;
+        for (Map<String, Object> step : (List<Map<String, Object>>) steps) {
+            Object result = step.get("result");
+            if (result instanceof Map) {
+                Object duration = ((Map<String, Object>) result).get("duration");
+                if (duration instanceof Number) {
+                    total += ((Number) duration).longValue();
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package org.ibs.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Номер и число шардов для текущего агента. Значения берутся так же, как браузер в
+ * RegistrationSteps: сначала системное свойство (-Dshard.index), затем переменная окружения
+ * Jenkins (SHARD_INDEX). Номер шарда начинается с 0.
+ *
+ * Длительности (shard.durations / SHARD_DURATIONS) должны быть одним и тем же общим артефактом
+ * на всех агентах, например объединенными cucumber.json всех шардов прошлого прогона. Собственный
+ * отчет агента по умолчанию не читается: в нем только сценарии его прошлого шарда, и агенты
+ * построили бы разные планы. Без shard.durations шарды делятся по числу сценариев.
+ */
+public final class ShardConfig {
+
+    private final int index;
+    private final int count;
+    private final List<String> durationFiles;
+
+    private ShardConfig(int index, int count, List<String> durationFiles) {
+        this.index = index;
+        this.count = count;
+        this.durationFiles = durationFiles;
+    }
+
+    public static ShardConfig fromEnvironment() {
+        int count = parse(read("shard.count", "SHARD_COUNT"), 1, "shard.count");
+        int index = parse(read("shard.index", "SHARD_INDEX"), 0, "shard.index");
+        // Несколько файлов через запятую, например отчеты всех шардов прошлого прогона
+        String files = read("shard.durations", "SHARD_DURATIONS");
+        List<String> durationFiles = new ArrayList<>();
+        for (String file : (files != null ? files : "").split(",")) {
+            if (!file.trim().isEmpty()) {
+                durationFiles.add(file.trim());
+            }
+        }
+        return of(index, count, durationFiles);
+    }
+
+    static ShardConfig of(int index, int count, List<String> durationFiles) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard: index=" + index + ", count=" + count
+                    + " (index must be in 0.." + (count - 1) + ")");
+        }
+        return new ShardConfig(index, count, durationFiles);
+    }
+
+    public boolean isEnabled() {
+        return count > 1;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public List<String> getDurationFiles() {
+        return durationFiles;
+    }
+
+    private static String read(String property, String environment) {
+        String value = System.getProperty(property);
+        if (value != null && !value.trim().isEmpty()) {
+            return value.trim();
+        }
+        value = System.getenv(environment);
+        if (value != null && !value.trim().isEmpty()) {
+            return value.trim();
+        }
+        return null;
+    }
+
+    private static int parse(String value, int defaultValue, String name) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.ibs.sharding;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Фильтр JUnit Platform, оставляющий в прогоне только сценарии текущего шарда.
+ * Регистрируется через META-INF/services и включается, только если shard.count больше 1.
+ * Сценарии Cucumber узнаются по уникальному идентификатору: сегмент [engine:cucumber], затем
+ * [feature:&lt;uri&gt;] и последний сегмент [scenario:&lt;строка&gt;] или [example:&lt;строка&gt;]. Так пиклы
+ * находятся и под движком cucumber напрямую, и вложенными в движок @Suite (TestRunner).
+ * План строится заново при обходе каждого корня: лаунчер применяет фильтр сначала к корню,
+ * пока в дереве есть все сценарии, и лишь затем удаляет исключенные.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private static final Set<String> PICKLE_SEGMENTS = Set.of("scenario", "example");
+
+    private final ShardConfig config;
+    private final Expression tagFilter;
+    private final Map<TestDescriptor, ShardPlan> plans = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public ShardFilter() {
+        this(ShardConfig.fromEnvironment(), parseTagFilter(System.getProperty("cucumber.filter.tags")));
+    }
+
+    ShardFilter(ShardConfig config, Expression tagFilter) {
+        this.config = config;
+        this.tagFilter = tagFilter;
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (!config.isEnabled()) {
+            return FilterResult.included("sharding disabled");
+        }
+        TestDescriptor root = root(descriptor);
+        ShardPlan plan;
+        if (descriptor == root) {
+            plan = buildPlan(root);
+            plans.put(root, plan);
+        } else {
+            plan = plans.computeIfAbsent(root, this::buildPlan);
+        }
+        if (!descriptor.isTest()) {
+            return FilterResult.included("container");
+        }
+        String key = scenarioKey(descriptor.getUniqueId());
+        if (key == null) {
+            return FilterResult.included("not a scenario");
+        }
+        if (!matchesTagFilter(descriptor)) {
+            // Cucumber все равно пропустит такой сценарий, оставляем его только в шарде 0
+            return config.getIndex() == 0
+                    ? FilterResult.included("filtered by tags")
+                    : FilterResult.excluded("filtered by tags");
+        }
+        return plan.belongsTo(key, config.getIndex())
+                ? FilterResult.included("shard " + config.getIndex())
+                : FilterResult.excluded("assigned to another shard");
+    }
+
+    private ShardPlan buildPlan(TestDescriptor root) {
+        List<String> scenarios = new ArrayList<>();
+        for (TestDescriptor descendant : root.getDescendants()) {
+            String key = descendant.isTest() && matchesTagFilter(descendant) ? scenarioKey(descendant.getUniqueId()) : null;
+            if (key != null) {
+                scenarios.add(key);
+            }
+        }
+        ScenarioDurations durations = ScenarioDurations.load(config.getDurationFiles());
+        ShardPlan plan = ShardPlan.build(scenarios, durations, config.getCount());
+        // Корни без сценариев Cucumber (junit-jupiter, пустые проходы обнаружения) не печатаются
+        if (!scenarios.isEmpty()) {
+            System.out.print((config.getDurationFiles().isEmpty()
+                    ? "Длительности сценариев не заданы (shard.durations), шарды делятся по числу сценариев\n"
+                    : "Длительности сценариев: " + durations.size() + " из " + config.getDurationFiles() + "\n")
+                    + plan.describe(config.getIndex()));
+        }
+        return plan;
+    }
+
+    // Теги сценариев фильтруются Cucumber при выполнении, а план должен делить только реально выполняемые
+    private boolean matchesTagFilter(TestDescriptor descriptor) {
+        if (tagFilter == null) {
+            return true;
+        }
+        List<String> tags = new ArrayList<>();
+        for (TestTag tag : descriptor.getTags()) {
+            tags.add("@" + tag.getName());
+        }
+        return tagFilter.evaluate(tags);
+    }
+
+    static Expression parseTagFilter(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+        return TagExpressionParser.parse(expression);
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor current = descriptor;
+        while (current.getParent().isPresent()) {
+            current = current.getParent().get();
+        }
+        return current;
+    }
+
+    /**
+     * Ключ сценария в формате {@link ScenarioDurations#key} или null, если это не пикл Cucumber.
+     */
+    static String scenarioKey(UniqueId uniqueId) {
+        List<UniqueId.Segment> segments = uniqueId.getSegments();
+        UniqueId.Segment last = segments.get(segments.size() - 1);
+        if (!PICKLE_SEGMENTS.contains(last.getType())) {
+            return null;
+        }
+        boolean cucumber = false;
+        for (UniqueId.Segment segment : segments) {
+            if ("engine".equals(segment.getType())) {
+                cucumber = "cucumber".equals(segment.getValue());
+            } else if (cucumber && "feature".equals(segment.getType())) {
+                try {
+                    return ScenarioDurations.key(segment.getValue(), Long.parseLong(last.getValue()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
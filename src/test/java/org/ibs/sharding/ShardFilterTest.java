@@ -0,0 +1,84 @@
+package org.ibs.sharding;
+
+import org.ibs.runners.TestRunner;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Все шарды вместе должны покрывать каждый сценарий TestRunner ровно один раз. Обнаружение
+ * идет через @Suite, как в обычном прогоне, без выполнения сценариев.
+ */
+class ShardFilterTest {
+
+    @ParameterizedTest(name = "{0} шарда, теги \"{1}\"")
+    @CsvSource({
+            "2, ''",
+            "3, ''",
+            "2, @Database",
+            "3, not @Volume and not @Load"
+    })
+    void shardsCoverEveryScenarioExactlyOnce(int count, String tags) {
+        List<String> all = scenarios(null);
+        assertFalse(all.isEmpty(), "TestRunner не обнаружил ни одного сценария");
+
+        List<String> sharded = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            ShardFilter filter = new ShardFilter(
+                    ShardConfig.of(index, count, Collections.emptyList()), ShardFilter.parseTagFilter(tags));
+            sharded.addAll(scenarios(filter));
+        }
+
+        assertEquals(new HashSet<>(sharded).size(), sharded.size(), "Сценарий попал в несколько шардов: " + sharded);
+        assertEquals(new HashSet<>(all), new HashSet<>(sharded), "Шарды вместе должны покрывать все сценарии");
+    }
+
+    @ParameterizedTest(name = "шард {0} из 2")
+    @CsvSource({"0", "1"})
+    void everyShardGetsScenarios(int index) {
+        ShardFilter filter = new ShardFilter(ShardConfig.of(index, 2, Collections.emptyList()), null);
+        assertFalse(scenarios(filter).isEmpty(), "Шард " + index + " не получил сценариев");
+    }
+
+    private static List<String> scenarios(PostDiscoveryFilter filter) {
+        // Фильтр из META-INF/services отключен, чтобы -Dshard.* самого прогона не влиял на проверку
+        LauncherConfig.Builder config = LauncherConfig.builder().enablePostDiscoveryFilterAutoRegistration(false);
+        if (filter != null) {
+            config.addPostDiscoveryFilters(filter);
+        }
+        LauncherDiscoveryRequest discovery = request().selectors(selectClass(TestRunner.class)).build();
+        TestPlan plan = LauncherFactory.create(config.build()).discover(discovery);
+
+        List<String> keys = new ArrayList<>();
+        Set<TestIdentifier> pending = new HashSet<>(plan.getRoots());
+        while (!pending.isEmpty()) {
+            TestIdentifier identifier = pending.iterator().next();
+            pending.remove(identifier);
+            pending.addAll(plan.getChildren(identifier));
+            String key = ShardFilter.scenarioKey(UniqueId.parse(identifier.getUniqueId()));
+            if (identifier.isTest() && key != null) {
+                keys.add(key);
+            }
+        }
+        assertTrue(keys.stream().allMatch(key -> key.startsWith("features/")), "Неожиданные ключи: " + keys);
+        return keys;
+    }
+}
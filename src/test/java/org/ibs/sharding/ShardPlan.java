@@ -0,0 +1,112 @@
+package org.ibs.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Распределение сценариев по шардам жадной упаковкой: сценарии по убыванию длительности
+ * по одному отдаются шарду с наименьшей суммарной длительностью. Порядок полностью
+ * детерминирован, поэтому каждый агент независимо получает одно и то же распределение.
+ * Сценарию без истории приписывается средняя длительность известных сценариев.
+ * Отпечаток входных данных (сценарии и их оценки) печатается каждым агентом: если он
+ * различается, агенты видят разные сценарии или разные длительности и планы разойдутся.
+ */
+public final class ShardPlan {
+
+    private static final long UNKNOWN_DEFAULT_NANOS = 1_000_000_000L;
+
+    private final Map<String, Integer> shardByScenario;
+    private final long[] shardNanos;
+    private final int[] shardScenarios;
+    private final String fingerprint;
+
+    private ShardPlan(Map<String, Integer> shardByScenario, long[] shardNanos, int[] shardScenarios, String fingerprint) {
+        this.shardByScenario = shardByScenario;
+        this.shardNanos = shardNanos;
+        this.shardScenarios = shardScenarios;
+        this.fingerprint = fingerprint;
+    }
+
+    public static ShardPlan build(List<String> scenarios, ScenarioDurations durations, int shards) {
+        long knownTotal = 0;
+        int known = 0;
+        for (String scenario : scenarios) {
+            Long nanos = durations.getNanos(scenario);
+            if (nanos != null) {
+                knownTotal += nanos;
+                known++;
+            }
+        }
+        long unknownEstimate = known > 0 ? knownTotal / known : UNKNOWN_DEFAULT_NANOS;
+
+        List<String> sorted = new ArrayList<>(scenarios);
+        Map<String, Long> estimate = new HashMap<>();
+        for (String scenario : sorted) {
+            Long nanos = durations.getNanos(scenario);
+            estimate.put(scenario, nanos != null ? nanos : unknownEstimate);
+        }
+        sorted.sort(Comparator.comparing((String s) -> estimate.get(s)).reversed().thenComparing(s -> s));
+
+        long[] shardNanos = new long[shards];
+        int[] shardScenarios = new int[shards];
+        Map<String, Integer> shardByScenario = new HashMap<>();
+        for (String scenario : sorted) {
+            int target = 0;
+            for (int shard = 1; shard < shards; shard++) {
+                if (shardNanos[shard] < shardNanos[target]) {
+                    target = shard;
+                }
+            }
+            shardByScenario.put(scenario, target);
+            shardNanos[target] += estimate.get(scenario);
+            shardScenarios[target]++;
+        }
+        return new ShardPlan(shardByScenario, shardNanos, shardScenarios, fingerprint(sorted, estimate, shards));
+    }
+
+    public boolean belongsTo(String scenario, int shard) {
+        Integer assigned = shardByScenario.get(scenario);
+        return assigned != null && assigned == shard;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String describe(int shard) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Шард %d из %d: %d сценариев, оценка %.1f с, отпечаток плана %s%n",
+                shard, shardNanos.length, shardScenarios[shard], shardNanos[shard] / 1e9, fingerprint));
+        for (int i = 0; i < shardNanos.length; i++) {
+            text.append(String.format("  шард %d: %d сценариев, %.1f с%n", i, shardScenarios[i], shardNanos[i] / 1e9));
+        }
+        return text.toString();
+    }
+
+    private static String fingerprint(List<String> sorted, Map<String, Long> estimate, int shards) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Integer.toString(shards).getBytes(StandardCharsets.UTF_8));
+            List<String> byKey = new ArrayList<>(sorted);
+            Collections.sort(byKey);
+            for (String scenario : byKey) {
+                digest.update(("\n" + scenario + "=" + estimate.get(scenario)).getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : Arrays.copyOf(digest.digest(), 6)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
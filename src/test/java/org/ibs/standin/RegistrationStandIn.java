@@ -0,0 +1,366 @@
+package org.ibs.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Локальная замена страницы регистрации OpenCart (route=account/register) на встроенном
+ * HTTP-сервере JDK. Повторяет протокол страницы: cookie сессии OCSESSID, register_token
+ * в адресе отправки формы, ответ на отправку в виде JSON с полями error или redirect.
+ *
+ * Страница повторяет разметку стенда (id полей, кнопка "Продолжить", ошибки в text-danger под полем,
+ * has-error на строке и alert-danger сверху, страница account/success), поэтому UI-сценарии проходят
+ * по ней без изменений. Правила валидации и искусственная задержка ответов задаются через {@link Builder}.
+ *
+ * register_token вычисляется из идентификатора сессии, поэтому сервер не хранит
+ * состояние сессий и не растет по памяти при нагрузочных прогонах.
+ */
+public final class RegistrationStandIn implements AutoCloseable {
+
+    public static final String REGISTER_PATH = "/?route=account/register&language=ru-ru";
+
+    private static final String SESSION_COOKIE = "OCSESSID";
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern DIGITS = Pattern.compile(".*\\d.*");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String registerTemplate;
+    private final String successTemplate;
+    private final String host;
+    private final long latencyMillis;
+    private final long latencyJitterMillis;
+    private final boolean rejectDigitsInName;
+    private final int minPasswordLength;
+    private final boolean uniqueEmails;
+    private final String secret = UUID.randomUUID().toString();
+    private final Set<String> registeredEmails = ConcurrentHashMap.newKeySet();
+
+    private static RegistrationStandIn shared;
+
+    // Настройки HttpServer JDK читаются один раз при загрузке его классов (sun.net.httpserver.ServerConfig)
+    // и API для отдельного сервера нет, поэтому они неизбежно общие для JVM и задаются до первого create():
+    // без TCP_NODELAY каждый ответ ждет delayed ACK (~40 мс), а сверх 200 простаивающих соединений
+    // сервер закрывает соединения, которые клиент уже считает свободными. Действуют они только на
+    // com.sun.net.httpserver (HTTP-клиенты и Selenium их не читают), а значения, заданные через -D, не меняются
+    static {
+        setIfAbsent("sun.net.httpserver.nodelay", "true");
+        setIfAbsent("sun.net.httpserver.maxIdleConnections", "10000");
+    }
+
+    private RegistrationStandIn(HttpServer server, ExecutorService executor, Builder builder) throws IOException {
+        this.server = server;
+        this.executor = executor;
+        this.registerTemplate = loadTemplate("standin/register.html");
+        this.successTemplate = loadTemplate("standin/success.html");
+        this.host = builder.host;
+        this.latencyMillis = builder.latencyMillis;
+        this.latencyJitterMillis = builder.latencyJitterMillis;
+        this.rejectDigitsInName = builder.rejectDigitsInName;
+        this.minPasswordLength = builder.minPasswordLength;
+        this.uniqueEmails = builder.uniqueEmails;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Общий для всего прогона экземпляр: запускается при первом обращении, останавливается {@link #stopShared()}.
+     */
+    public static synchronized RegistrationStandIn shared(Builder builder) throws IOException {
+        if (shared == null) {
+            shared = builder.start();
+        }
+        return shared;
+    }
+
+    public static synchronized void stopShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + host + ":" + server.getAddress().getPort();
+    }
+
+    public String getRegisterUrl() {
+        return getBaseUrl() + REGISTER_PATH;
+    }
+
+    public int getRegisteredCount() {
+        return registeredEmails.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            simulateLatency();
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            String route = query.getOrDefault("route", "common/home");
+            String session = sessionOf(exchange);
+
+            if ("GET".equals(exchange.getRequestMethod()) && "account/register".equals(route)) {
+                String action = "index.php?route=account/register.register&amp;language=ru-ru&amp;register_token="
+                        + tokenFor(session);
+                respond(exchange, 200, "text/html; charset=utf-8", registerTemplate.replace("{{action}}", action));
+            } else if ("POST".equals(exchange.getRequestMethod()) && "account/register.register".equals(route)) {
+                respond(exchange, 200, "application/json; charset=utf-8", register(exchange, query, session));
+            } else if ("account/success".equals(route)) {
+                respond(exchange, 200, "text/html; charset=utf-8", successTemplate);
+            } else {
+                respond(exchange, 404, "text/plain; charset=utf-8", "Not found: " + route);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "text/plain; charset=utf-8", e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String register(HttpExchange exchange, Map<String, String> query, String session) throws IOException {
+        if (!tokenFor(session).equals(query.get("register_token"))) {
+            return "{\"redirect\":\"" + getRegisterUrl() + "\",\"error\":{\"warning\":\"Недействительный токен сессии\"}}";
+        }
+        Map<String, String> form;
+        try (InputStream body = exchange.getRequestBody()) {
+            form = parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        String firstName = form.getOrDefault("firstname", "");
+        if (firstName.isEmpty() || firstName.length() > 32
+                || (rejectDigitsInName && DIGITS.matcher(firstName).matches())) {
+            errors.put("firstname", "Имя должно быть от 1 до 32 символов и не содержать цифр!");
+        }
+        String lastName = form.getOrDefault("lastname", "");
+        if (lastName.isEmpty() || lastName.length() > 32) {
+            errors.put("lastname", "Фамилия должна быть от 1 до 32 символов!");
+        }
+        String email = form.getOrDefault("email", "");
+        if (email.length() > 96 || !EMAIL.matcher(email).matches()) {
+            errors.put("email", "E-Mail адрес введен неверно!");
+        }
+        String password = form.getOrDefault("password", "");
+        if (password.length() < minPasswordLength || password.length() > 40) {
+            errors.put("password", "Пароль должен быть от " + minPasswordLength + " до 40 символов!");
+        }
+        if (!"1".equals(form.get("agree"))) {
+            errors.put("warning", "Вы должны прочитать и согласиться с Политикой конфиденциальности!");
+        }
+        if (errors.isEmpty() && uniqueEmails && !registeredEmails.add(email.toLowerCase())) {
+            errors.put("warning", "Этот E-Mail уже зарегистрирован!");
+        }
+
+        if (!errors.isEmpty()) {
+            StringBuilder json = new StringBuilder("{\"error\":{");
+            errors.forEach((field, message) -> json.append('"').append(field).append("\":\"")
+                    .append(message).append("\","));
+            json.setLength(json.length() - 1);
+            return json.append("}}").toString();
+        }
+        return "{\"redirect\":\"" + getBaseUrl() + "/index.php?route=account/success&language=ru-ru\"}";
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long delay = latencyMillis;
+        if (latencyJitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private String sessionOf(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String pair : header.split(";")) {
+                String[] parts = pair.trim().split("=", 2);
+                if (parts.length == 2 && SESSION_COOKIE.equals(parts[0])) {
+                    return parts[1];
+                }
+            }
+        }
+        String session = UUID.randomUUID().toString().replace("-", "");
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; path=/; HttpOnly");
+        return session;
+    }
+
+    private String tokenFor(String session) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((secret + session).getBytes(StandardCharsets.UTF_8));
+            StringBuilder token = new StringBuilder();
+            for (int i = 0; i < 13; i++) {
+                token.append(String.format("%02x", digest[i]));
+            }
+            return token.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void setIfAbsent(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            values.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return values;
+    }
+
+    private static String loadTemplate(String classpathResource) throws IOException {
+        try (InputStream input = RegistrationStandIn.class.getClassLoader().getResourceAsStream(classpathResource)) {
+            if (input == null) {
+                throw new IOException("Template not found: " + classpathResource);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static final class Builder {
+
+        private String bindAddress = "127.0.0.1";
+        private String host = "127.0.0.1";
+        private int port;
+        private int threads = 32;
+        private long latencyMillis;
+        private long latencyJitterMillis;
+        private boolean rejectDigitsInName = true;
+        private int minPasswordLength = 4;
+        private boolean uniqueEmails = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Адрес, на котором слушает сервер. Для удаленного браузера (Selenoid) - 0.0.0.0.
+         */
+        public Builder bindAddress(String bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * Хост в адресах страниц, по которому браузер обращается к серверу.
+         */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * 0 - любой свободный порт.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Искусственная задержка каждого ответа: latency плюс случайная добавка до jitter.
+         */
+        public Builder latency(Duration latency, Duration jitter) {
+            this.latencyMillis = latency.toMillis();
+            this.latencyJitterMillis = jitter.toMillis();
+            return this;
+        }
+
+        public Builder rejectDigitsInName(boolean rejectDigitsInName) {
+            this.rejectDigitsInName = rejectDigitsInName;
+            return this;
+        }
+
+        public Builder minPasswordLength(int minPasswordLength) {
+            this.minPasswordLength = minPasswordLength;
+            return this;
+        }
+
+        public Builder uniqueEmails(boolean uniqueEmails) {
+            this.uniqueEmails = uniqueEmails;
+            return this;
+        }
+
+        public RegistrationStandIn start() throws IOException {
+            if (threads <= 0 || latencyMillis < 0 || latencyJitterMillis < 0) {
+                throw new IllegalArgumentException("Invalid stand-in settings: threads=" + threads
+                        + ", latency=" + latencyMillis + ", jitter=" + latencyJitterMillis);
+            }
+            HttpServer server = HttpServer.create(new InetSocketAddress(bindAddress, port), 1024);
+            AtomicInteger counter = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "registration-standin-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            RegistrationStandIn standIn;
+            try {
+                standIn = new RegistrationStandIn(server, executor, this);
+            } catch (IOException | RuntimeException e) {
+                server.stop(0);
+                executor.shutdownNow();
+                throw e;
+            }
+            server.createContext("/", standIn::handle);
+            server.setExecutor(executor);
+            server.start();
+            System.out.println("Registration stand-in started on " + standIn.getRegisterUrl());
+            return standIn;
+        }
+    }
+}
@@ -1,41 +1,159 @@
 package org.ibs.steps;
 
+import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
 import io.cucumber.java.en.Then;
+import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
+import org.ibs.config.TestConfig;
+import org.ibs.db.BlockIdAllocator;
+import org.ibs.db.BulkLoadResult;
+import org.ibs.db.BulkLoader;
+import org.ibs.db.ConnectionFactory;
+import org.ibs.db.ConnectionPool;
+import org.ibs.db.FoodItem;
+import org.ibs.db.FoodTable;
+import org.ibs.db.ScenarioTransaction;
+import org.ibs.db.TableDiff;
+import org.ibs.db.TableFingerprint;
+import org.ibs.db.TableSnapshot;
+import org.ibs.db.WorkerDatabases;
+import org.ibs.load.LoadReport;
+import org.ibs.load.LoadRunner;
+import org.ibs.load.LoadScenario;
+import org.ibs.preflight.CircuitBreaker;
+import org.ibs.preflight.Dependency;
 
 import java.sql.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+/**
+ * Экземпляр создается Cucumber на каждый сценарий, соединение и снимки таблицы принадлежат только ему.
+ * Все изменения сценария выполняются в одной транзакции, которая откатывается после сценария,
+ * а идентификаторы выдаются блоками из последовательности, поэтому сценарии @Database
+ * могут выполняться параллельно.
+ */
 public class DatabaseSteps {
 
+    private ScenarioTransaction transaction;
     private Connection connection;
-    private static final String DB_URL = "jdbc:h2:tcp://qualit.applineselenoid.fvds.ru/mem:testdb";
-    private static final String USER = "user";
-    private static final String PASS = "pass";
+    private static final TestConfig CONFIG = TestConfig.get();
+    private static final String DB_URL = CONFIG.getDbUrl();
+    private static final String USER = CONFIG.getDbUser();
+    private static final String PASS = CONFIG.getDbPassword();
+
+    // remote - общий сервер H2 по db.url (через пул соединений), embedded - своя БД в памяти на каждый поток
+    private static final WorkerDatabases EMBEDDED_DATABASES = createEmbeddedDatabases();
+    private static final ConnectionPool CONNECTION_POOL = EMBEDDED_DATABASES == null ? createConnectionPool() : null;
+    private static final ConnectionFactory CONNECTIONS = EMBEDDED_DATABASES != null ? EMBEDDED_DATABASES
+            : CONNECTION_POOL != null ? CONNECTION_POOL
+            : () -> DriverManager.getConnection(DB_URL, USER, PASS);
 
     private static final String TEST_FOOD_NAME = "Докторская колбаса";
     private static final String TEST_FOOD_TYPE = "MEAT";
     private static final int TEST_FOOD_EXOTIC = 0;
 
-    private List<FoodItem> initialFoodItems;
+    private static final int FOOD_ID_BLOCK_SIZE = 100;
+    private static final int DIFF_PRINT_LIMIT = 20;
+    private static final String[] GENERATED_FOOD_TYPES = {"FRUIT", "VEGETABLE", "MEAT"};
+    // Сценарий держит соединение пула всю свою транзакцию, поэтому блоки ключей резервируются через
+    // отдельное соединение: иначе при потоках >= db.pool.max.size все ждали бы второго соединения из пула
+    private static final ConnectionPool ID_CONNECTION_POOL = CONNECTION_POOL != null ? createIdConnectionPool() : null;
+    private static final BlockIdAllocator FOOD_IDS = new BlockIdAllocator(
+            ID_CONNECTION_POOL != null ? ID_CONNECTION_POOL : CONNECTIONS, "FOOD", "FOOD_ID", FOOD_ID_BLOCK_SIZE);
+
+    // aggregate - сравнение количества строк и контрольной суммы на стороне БД, rows - по полному списку строк
+    private final boolean aggregateVerification =
+            "aggregate".equalsIgnoreCase(CONFIG.getString("db.verify.mode"));
+
+    private TableFingerprint initialFingerprint;
+    private TableFingerprint fingerprintAfterInsert;
+    private TableSnapshot initialSnapshot;
     private int newFoodId;
-    private List<FoodItem> foodItemsAfterInsert;
+    private List<FoodItem> loadedFoodItems;
+    private TableSnapshot snapshotAfterInsert;
+    private LoadReport loadReport;
+
+    @Before("@Database")
+    public void beginScenarioTransaction() throws SQLException {
+        if (EMBEDDED_DATABASES == null) {
+            CircuitBreaker.of(Dependency.DATABASE).abortIfOpen();
+        }
+        if (EMBEDDED_DATABASES != null
+                && CONFIG.is("db.embedded.restore", "scenario")) {
+            EMBEDDED_DATABASES.restoreCurrent();
+            FOOD_IDS.discardBlock();
+        }
+        if (EMBEDDED_DATABASES != null) {
+            transaction = ScenarioTransaction.begin(CONNECTIONS.open());
+        } else {
+            // Отказ подключения к серверу БД учитывается предохранителем, который пропускает следующие сценарии @Database
+            CircuitBreaker breaker = CircuitBreaker.of(Dependency.DATABASE);
+            try {
+                transaction = ScenarioTransaction.begin(CONNECTIONS.open());
+            } catch (SQLException e) {
+                breaker.recordFailure(CircuitBreaker.describe(e));
+                throw e;
+            }
+            breaker.recordSuccess();
+        }
+        connection = transaction.getConnection();
+    }
+
+    @After("@Database")
+    public void rollbackScenarioTransaction(Scenario scenario) {
+        if (scenario.isFailed() && connection != null) {
+            // Содержимое таблицы до отката транзакции сценария
+            try {
+                FailureArtifacts.attachText("Таблица FOOD при падении",
+                        FoodTable.snapshot(connection, CONFIG.getInt("db.fetch.size")).format(Integer.MAX_VALUE));
+            } catch (Exception e) {
+                System.err.println("Failed to capture FOOD table: " + e.getMessage());
+            }
+        }
+        if (transaction != null) {
+            transaction.close();
+            transaction = null;
+            connection = null;
+        }
+    }
+
+    @AfterAll
+    public static void closeConnectionPool() {
+        if (CONNECTION_POOL != null) {
+            CONNECTION_POOL.close();
+        }
+        if (ID_CONNECTION_POOL != null) {
+            ID_CONNECTION_POOL.close();
+        }
+    }
 
     @Given("У меня есть соединение с базой данных")
     @Step("Установка соединения с базой данных")
     public void setupDatabaseConnection() throws SQLException {
-        connection = DriverManager.getConnection(DB_URL, USER, PASS);
-        connection.setAutoCommit(false);
+        assertTrue(connection != null && connection.isValid(5), "Соединение с базой данных должно быть открыто");
 
         // Получить исходное состояние таблицы
-        initialFoodItems = getAllFoodItems();
-        System.out.println("Исходное состояние таблицы FOOD:");
-        printFoodItems(initialFoodItems);
+        if (aggregateVerification) {
+            initialFingerprint = captureFoodFingerprint();
+            System.out.println("Исходное состояние таблицы FOOD: " + initialFingerprint);
+        } else {
+            initialSnapshot = captureFoodSnapshot();
+            System.out.println("Исходное состояние таблицы FOOD:");
+            printFoodItems(initialSnapshot);
+        }
     }
 
     @When("Я добавляю новый товар в таблицу FOOD")
@@ -44,22 +162,40 @@ public class DatabaseSteps {
         newFoodId = getNextFoodId();
         insertFoodItem(newFoodId, TEST_FOOD_NAME, TEST_FOOD_TYPE, TEST_FOOD_EXOTIC);
 
-        foodItemsAfterInsert = getAllFoodItems();
-        System.out.println("Таблица FOOD после добавления:");
-        printFoodItems(foodItemsAfterInsert);
+        if (aggregateVerification) {
+            fingerprintAfterInsert = captureFoodFingerprint();
+            System.out.println("Таблица FOOD после добавления: " + fingerprintAfterInsert);
+        } else {
+            snapshotAfterInsert = captureFoodSnapshot();
+            System.out.println("Таблица FOOD после добавления:");
+            printFoodItems(snapshotAfterInsert);
+        }
     }
 
     @Then("Товар должен быть успешно добавлен")
     @Step("Проверка добавления товара")
-    public void verifyFoodItemAdded() {
-        assertEquals(initialFoodItems.size() + 1, foodItemsAfterInsert.size(),
-                "Новый товар должен быть добавлен в таблицу");
+    public void verifyFoodItemAdded() throws SQLException {
+        if (aggregateVerification) {
+            if (fingerprintAfterInsert.getRowCount() != initialFingerprint.getRowCount() + 1) {
+                explainMismatch("после добавления");
+            }
+            assertEquals(initialFingerprint.getRowCount() + 1, fingerprintAfterInsert.getRowCount(),
+                    "Новый товар должен быть добавлен в таблицу");
+        } else {
+            TableDiff diff = TableDiff.between(initialSnapshot, snapshotAfterInsert);
+            System.out.println(diff.describe(DIFF_PRINT_LIMIT));
+            assertEquals(initialSnapshot.getRowCount() + 1, snapshotAfterInsert.getRowCount(),
+                    "Новый товар должен быть добавлен в таблицу");
+            assertArrayEquals(new long[]{newFoodId}, diff.getAdded(), "Добавлена должна быть ровно одна новая строка");
+        }
     }
 
     @Then("Я могу найти добавленный товар")
     @Step("Поиск добавленного товара")
-    public void findAddedFoodItem() {
-        FoodItem newItem = findFoodItemById(foodItemsAfterInsert, newFoodId);
+    public void findAddedFoodItem() throws SQLException {
+        FoodItem newItem = aggregateVerification
+                ? findFoodItem(newFoodId)
+                : findFoodItemById(snapshotAfterInsert, newFoodId);
         assertNotNull(newItem, "Добавленный товар должен присутствовать в таблице");
         assertEquals(TEST_FOOD_NAME, newItem.getFoodName(), "Название товара должно совпадать");
         assertEquals(TEST_FOOD_TYPE, newItem.getFoodType(), "Тип товара должно совпадать");
@@ -75,113 +211,324 @@ public class DatabaseSteps {
     @Then("Таблица должна вернуться в исходное состояние")
     @Step("Проверка возврата к исходному состоянию")
     public void verifyTableReturnedToInitialState() throws SQLException {
-        List<FoodItem> foodItemsAfterDelete = getAllFoodItems();
+        if (aggregateVerification) {
+            TableFingerprint fingerprintAfterDelete = captureFoodFingerprint();
+            System.out.println("Таблица FOOD после удаления: " + fingerprintAfterDelete);
+            if (!fingerprintAfterDelete.equals(initialFingerprint)) {
+                explainMismatch("после удаления");
+            }
+            assertEquals(initialFingerprint, fingerprintAfterDelete,
+                    "Таблица должна вернуться к исходному состоянию после удаления");
+            assertNull(findFoodItem(newFoodId), "Удаленный товар не должен присутствовать в таблице");
+            return;
+        }
+
+        TableSnapshot snapshotAfterDelete = captureFoodSnapshot();
         System.out.println("Таблица FOOD после удаления:");
-        printFoodItems(foodItemsAfterDelete);
+        printFoodItems(snapshotAfterDelete);
 
-        assertEquals(initialFoodItems.size(), foodItemsAfterDelete.size(),
-                "Таблица должна вернуться к исходному состоянию после удаления");
+        TableDiff diff = TableDiff.between(initialSnapshot, snapshotAfterDelete);
+        assertTrue(diff.isEmpty(),
+                "Таблица должна вернуться к исходному состоянию после удаления: " + diff.describe(DIFF_PRINT_LIMIT));
 
-        FoodItem deletedItem = findFoodItemById(foodItemsAfterDelete, newFoodId);
+        FoodItem deletedItem = findFoodItemById(snapshotAfterDelete, newFoodId);
         assertNull(deletedItem, "Удаленный товар не должен присутствовать в таблице");
+    }
+
+    @When("Я загружаю в таблицу FOOD товары:")
+    @Step("Массовая загрузка товаров из таблицы данных")
+    public void bulkLoadFoodItems(DataTable dataTable) throws SQLException {
+        List<Map<String, String>> rows = dataTable.asMaps();
+        long[] ids = FOOD_IDS.nextIds(rows.size());
+        List<FoodItem> items = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, String> row = rows.get(i);
+            items.add(new FoodItem(Math.toIntExact(ids[i]), row.get("FOOD_NAME"), row.get("FOOD_TYPE"),
+                    Integer.parseInt(row.get("FOOD_EXOTIC"))));
+        }
+        loadFoodItems(items);
+    }
+
+    @When("Я загружаю в таблицу FOOD {int} сгенерированных товаров")
+    @Step("Массовая загрузка сгенерированных товаров")
+    public void bulkLoadGeneratedFoodItems(int count) throws SQLException {
+        long[] ids = FOOD_IDS.nextIds(count);
+        List<FoodItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new FoodItem(Math.toIntExact(ids[i]), "Товар " + ids[i],
+                    GENERATED_FOOD_TYPES[i % GENERATED_FOOD_TYPES.length], i % 2));
+        }
+        loadFoodItems(items);
+    }
+
+    @Then("В таблице FOOD должно появиться {int} новых товаров")
+    @Step("Проверка количества загруженных товаров")
+    public void verifyFoodItemsLoaded(int count) throws SQLException {
+        long initialRowCount = aggregateVerification ? initialFingerprint.getRowCount() : initialSnapshot.getRowCount();
+        TableFingerprint fingerprint = captureFoodFingerprint();
+        System.out.println("Таблица FOOD после загрузки: " + fingerprint);
+        assertEquals(initialRowCount + count, fingerprint.getRowCount(),
+                "В таблицу должно быть добавлено " + count + " товаров");
+    }
+
+    @Then("Все загруженные товары должны читаться из таблицы FOOD")
+    @Step("Проверка чтения загруженных товаров")
+    public void verifyLoadedFoodItemsReadable() throws SQLException {
+        assertTrue(loadedFoodItems != null && !loadedFoodItems.isEmpty(),
+                "В сценарии не было массовой загрузки товаров, проверять нечего");
+        // Строки читаются по ключам загрузки: блоки ключей не обязательно идут подряд, и между ними бывают чужие строки
+        List<FoodItem> expected = new ArrayList<>(loadedFoodItems);
+        expected.sort(Comparator.comparingInt(FoodItem::getFoodId));
+        int[] ids = expected.stream().mapToInt(FoodItem::getFoodId).toArray();
+        List<FoodItem> actual = FoodTable.select(connection, ids, CONFIG.getInt("db.fetch.size"));
+        if (!expected.equals(actual)) {
+            fail("Загруженные товары читаются из таблицы FOOD не так, как были записаны (прочитано "
+                    + actual.size() + " из " + expected.size() + "):\n" + describeLoadMismatch(expected, actual));
+        }
+    }
+
+    @When("Я выполняю CRUD операции с товарами от {int} пользователей в течение {int} секунд")
+    @Step("Нагрузочный прогон CRUD по времени")
+    public void runFoodCrudLoadForDuration(int users, int seconds) throws Exception {
+        try (ConnectionPool pool = openLoadConnectionPool()) {
+            BlockIdAllocator ids = new BlockIdAllocator(pool, "FOOD", "FOOD_ID", FOOD_ID_BLOCK_SIZE);
+            loadReport = LoadRunner.runForDuration(users, Duration.ofSeconds(seconds), foodCrudIteration(pool, ids));
+        }
+        reportLoad(loadReport);
+    }
+
+    @When("Я выполняю CRUD операции с товарами от {int} пользователей по {int} итераций")
+    @Step("Нагрузочный прогон CRUD по числу итераций")
+    public void runFoodCrudLoadForIterations(int users, int iterations) throws Exception {
+        try (ConnectionPool pool = openLoadConnectionPool()) {
+            BlockIdAllocator ids = new BlockIdAllocator(pool, "FOOD", "FOOD_ID", FOOD_ID_BLOCK_SIZE);
+            loadReport = LoadRunner.runIterations(users, iterations, foodCrudIteration(pool, ids));
+        }
+        reportLoad(loadReport);
+    }
 
-        connection.close();
+    @Then("Нагрузочный прогон должен завершиться без ошибок")
+    @Step("Проверка результатов нагрузочного прогона")
+    public void verifyLoadFinishedWithoutErrors() {
+        assertTrue(loadReport.getIterations() > 0, "Нагрузочный прогон должен выполнить хотя бы одну итерацию");
+        assertEquals(0, loadReport.getFailedIterations(),
+                "Итерации нагрузочного прогона завершились с ошибками: " + loadReport.getErrorSamples());
     }
 
     // Вспомогательные методы
     @Step("Получение следующего ID для товара")
     private int getNextFoodId() throws SQLException {
-        String sql = "SELECT MAX(FOOD_ID) + 1 as NEXT_ID FROM FOOD";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                return rs.getInt("NEXT_ID");
+        return Math.toIntExact(FOOD_IDS.nextId());
+    }
+
+    @Step("Вычисление контрольной суммы таблицы FOOD")
+    private TableFingerprint captureFoodFingerprint() throws SQLException {
+        return FoodTable.fingerprint(connection);
+    }
+
+    @Step("Поиск товара по ID")
+    private FoodItem findFoodItem(int id) throws SQLException {
+        return FoodTable.select(connection, id);
+    }
+
+    // Строки читаются только когда агрегаты не совпали и расхождение нужно объяснить
+    @Step("Расхождение состояния таблицы FOOD")
+    private void explainMismatch(String stage) throws SQLException {
+        System.out.println("Состояние таблицы FOOD " + stage + " не совпало с ожидаемым, строки таблицы:");
+        printFoodItems(captureFoodSnapshot());
+    }
+
+    @Step("Снимок таблицы FOOD")
+    private TableSnapshot captureFoodSnapshot() throws SQLException {
+        return FoodTable.snapshot(connection, CONFIG.getInt("db.fetch.size"));
+    }
+
+    private void loadFoodItems(List<FoodItem> items) throws SQLException {
+        loadedFoodItems = items;
+        try (BulkLoader loader = createFoodLoader()) {
+            for (FoodItem item : items) {
+                loader.add(item.getFoodId(), item.getFoodName(), item.getFoodType(), item.getFoodExotic());
             }
+            reportBulkLoad(loader.finish());
         }
-        return 1;
     }
 
-    @Step("Получение всех товаров из таблицы FOOD")
-    private List<FoodItem> getAllFoodItems() throws SQLException {
-        List<FoodItem> foodItems = new ArrayList<>();
-        String sql = "SELECT * FROM FOOD ORDER BY FOOD_ID";
+    // Загрузка идет в транзакции сценария: фиксация оставила бы строки в общей таблице и сняла бы точку сохранения
+    private BulkLoader createFoodLoader() throws SQLException {
+        int batchSize = CONFIG.getInt("db.bulk.batch.size");
+        int commitInterval = CONFIG.getInt("db.bulk.commit.interval");
+        if (commitInterval > 0) {
+            throw new IllegalStateException("db.bulk.commit.interval=" + commitInterval
+                    + " is not supported in scenario steps: the load runs in the rolled back scenario transaction,"
+                    + " and a commit would leave the loaded rows in FOOD");
+        }
+        return FoodTable.loader(connection, batchSize, commitInterval);
+    }
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private static String describeLoadMismatch(List<FoodItem> expected, List<FoodItem> actual) {
+        Map<Integer, FoodItem> read = new HashMap<>();
+        for (FoodItem item : actual) {
+            read.put(item.getFoodId(), item);
+        }
+        StringBuilder text = new StringBuilder();
+        int shown = 0;
+        for (FoodItem item : expected) {
+            FoodItem found = read.get(item.getFoodId());
+            if (item.equals(found)) {
+                continue;
+            }
+            if (shown++ == DIFF_PRINT_LIMIT) {
+                text.append("...\n");
+                break;
+            }
+            text.append(found == null ? "нет строки " + item : "записано " + item + ", прочитано " + found).append('\n');
+        }
+        return text.toString();
+    }
 
-            while (rs.next()) {
-                FoodItem item = new FoodItem(
-                        rs.getInt("FOOD_ID"),
-                        rs.getString("FOOD_NAME"),
-                        rs.getString("FOOD_TYPE"),
-                        rs.getInt("FOOD_EXOTIC")
-                );
-                foodItems.add(item);
+    // Итерация повторяет сценарий database.feature: вставка, чтение по ключу и удаление,
+    // каждая операция в автокоммите, как это делает сервис
+    private static LoadScenario foodCrudIteration(ConnectionPool pool, BlockIdAllocator ids) {
+        return context -> {
+            // Блок идентификаторов резервируется своим соединением из того же пула, поэтому до open()
+            int id = Math.toIntExact(ids.nextId());
+            try (Connection conn = pool.open()) {
+                context.measure("insert", () -> {
+                    FoodTable.insert(conn, id, TEST_FOOD_NAME, TEST_FOOD_TYPE, TEST_FOOD_EXOTIC);
+                    return null;
+                });
+                try {
+                    FoodItem item = context.measure("select", () -> FoodTable.select(conn, id));
+                    if (item == null) {
+                        throw new IllegalStateException("Товар с ID " + id + " не найден после вставки");
+                    }
+                } finally {
+                    context.measure("delete", () -> {
+                        FoodTable.delete(conn, id);
+                        return null;
+                    });
+                }
             }
+        };
+    }
+
+    // Нагрузочные сценарии не помечены @Database, поэтому предохранитель БД проверяется здесь, а одно соединение
+    // открывается до старта пользователей: при недоступной БД сценарий падает один раз, а не ждет таймаута
+    // подключения в каждом из сотен потоков, и следующие сценарии пропускаются
+    private static ConnectionPool openLoadConnectionPool() throws SQLException {
+        if (EMBEDDED_DATABASES != null) {
+            return createLoadConnectionPool();
+        }
+        CircuitBreaker breaker = CircuitBreaker.of(Dependency.DATABASE);
+        breaker.abortIfOpen();
+        ConnectionPool pool = createLoadConnectionPool();
+        try {
+            pool.open().close();
+        } catch (SQLException e) {
+            breaker.recordFailure(CircuitBreaker.describe(e));
+            pool.close();
+            throw e;
         }
-        return foodItems;
+        breaker.recordSuccess();
+        return pool;
+    }
+
+    // Отдельный пул для нагрузки: в embedded режиме все пользователи работают с БД текущего потока сценария
+    private static ConnectionPool createLoadConnectionPool() throws SQLException {
+        ConnectionFactory target = EMBEDDED_DATABASES != null ? EMBEDDED_DATABASES.current()
+                : () -> DriverManager.getConnection(DB_URL, USER, PASS);
+        int poolSize = CONFIG.getInt("db.load.pool.size");
+        return ConnectionPool.builder(target)
+                .minSize(0)
+                .maxSize(poolSize)
+                .borrowTimeoutSeconds(CONFIG.getLong("db.pool.borrow.timeout.seconds"))
+                .build();
+    }
+
+    @Step("Результат нагрузочного прогона")
+    private void reportLoad(LoadReport report) {
+        String text = report.format();
+        System.out.print(text);
+        Allure.addAttachment("Нагрузочный прогон FOOD", text);
+    }
+
+    @Step("Результат массовой загрузки")
+    private void reportBulkLoad(BulkLoadResult result) {
+        System.out.println("Загрузка в таблицу FOOD: " + result);
+        Allure.addAttachment("Массовая загрузка FOOD", result.toString());
     }
 
     @Step("Добавление товара")
     private void insertFoodItem(int id, String name, String type, int exotic) throws SQLException {
-        String sql = "INSERT INTO FOOD (FOOD_ID, FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC) VALUES (?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.setString(2, name);
-            pstmt.setString(3, type);
-            pstmt.setInt(4, exotic);
-            pstmt.executeUpdate();
-        }
+        FoodTable.insert(connection, id, name, type, exotic);
     }
 
     @Step("Удаление товара")
     private void deleteFoodItem(int id) throws SQLException {
-        String sql = "DELETE FROM FOOD WHERE FOOD_ID = ?";
+        FoodTable.delete(connection, id);
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+    private FoodItem findFoodItemById(TableSnapshot snapshot, int id) {
+        int row = snapshot.indexOf(id);
+        if (row < 0) {
+            return null;
         }
+        return new FoodItem(
+                id,
+                (String) snapshot.getValue("FOOD_NAME", row),
+                (String) snapshot.getValue("FOOD_TYPE", row),
+                toInt(snapshot.getValue("FOOD_EXOTIC", row))
+        );
     }
 
-    private FoodItem findFoodItemById(List<FoodItem> foodItems, int id) {
-        return foodItems.stream()
-                .filter(item -> item.getFoodId() == id)
-                .findFirst()
-                .orElse(null);
+    // FOOD_EXOTIC может быть объявлен как BOOLEAN, rs.getInt() в этом случае отдает 0/1
+    private static int toInt(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return ((Number) value).intValue();
     }
 
     @Step("Вывод списка товаров")
-    private void printFoodItems(List<FoodItem> foodItems) {
-        for (FoodItem item : foodItems) {
-            System.out.println(item);
-        }
-        System.out.println("---");
+    private void printFoodItems(TableSnapshot snapshot) {
+        // Одна запись в консоль на таблицу и не больше db.print.max.rows строк; полная таблица упавшего сценария уходит во вложение
+        int maxRows = CONFIG.getInt("db.print.max.rows");
+        System.out.print(snapshot.format(maxRows) + "---\n");
     }
 
-    private static class FoodItem {
-        private int foodId;
-        private String foodName;
-        private String foodType;
-        private int foodExotic;
-
-        public FoodItem(int foodId, String foodName, String foodType, int foodExotic) {
-            this.foodId = foodId;
-            this.foodName = foodName;
-            this.foodType = foodType;
-            this.foodExotic = foodExotic;
+    private static WorkerDatabases createEmbeddedDatabases() {
+        if (!CONFIG.isEmbeddedDatabase()) {
+            return null;
         }
+        try {
+            return WorkerDatabases.fromScript("food", CONFIG.getString("db.embedded.script"));
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to build embedded database: " + e.getMessage(), e);
+        }
+    }
 
-        public int getFoodId() { return foodId; }
-        public String getFoodName() { return foodName; }
-        public String getFoodType() { return foodType; }
-        public int getFoodExotic() { return foodExotic; }
-
-        @Override
-        public String toString() {
-            return String.format("FoodItem{id=%d, name='%s', type='%s', exotic=%d}",
-                    foodId, foodName, foodType, foodExotic);
+    private static ConnectionPool createConnectionPool() {
+        if (!CONFIG.getBoolean("db.pool.enabled")) {
+            return null;
         }
+        return ConnectionPool.builder(() -> DriverManager.getConnection(DB_URL, USER, PASS))
+                .minSize(CONFIG.getInt("db.pool.min.size"))
+                .maxSize(CONFIG.getInt("db.pool.max.size"))
+                .validationTimeoutSeconds(CONFIG.getInt("db.pool.validation.timeout.seconds"))
+                .idleTimeoutSeconds(CONFIG.getLong("db.pool.idle.timeout.seconds"))
+                .leakThresholdSeconds(CONFIG.getLong("db.pool.leak.threshold.seconds"))
+                .borrowTimeoutSeconds(CONFIG.getLong("db.pool.borrow.timeout.seconds"))
+                .build();
+    }
+
+    // Одно соединение на все потоки: резервирование блока - один короткий запрос раз в FOOD_ID_BLOCK_SIZE ключей
+    private static ConnectionPool createIdConnectionPool() {
+        return ConnectionPool.builder(() -> DriverManager.getConnection(DB_URL, USER, PASS))
+                .minSize(0)
+                .maxSize(1)
+                .validationTimeoutSeconds(CONFIG.getInt("db.pool.validation.timeout.seconds"))
+                .idleTimeoutSeconds(CONFIG.getLong("db.pool.idle.timeout.seconds"))
+                .borrowTimeoutSeconds(CONFIG.getLong("db.pool.borrow.timeout.seconds"))
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.ibs.steps;
+
+import io.cucumber.java.AfterAll;
+import org.ibs.artifacts.ArtifactWriter;
+import org.ibs.config.TestConfig;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.time.Duration;
+
+/**
+ * Материалы упавших сценариев: скриншот, HTML страницы, консоль браузера, содержимое таблиц.
+ * Снимаются в потоке сценария только при падении, а сжатие и запись в Allure выполняет
+ * {@link ArtifactWriter} в фоне, поэтому прошедшие сценарии ничего не платят.
+ */
+public class FailureArtifacts {
+
+    private static final TestConfig CONFIG = TestConfig.get();
+    private static final boolean ENABLED = CONFIG.getBoolean("artifacts.enabled");
+    private static final ArtifactWriter WRITER = ENABLED ? ArtifactWriter.builder()
+            .queueSize(CONFIG.getInt("artifacts.queue.size"))
+            .jpegScreenshots("jpeg".equalsIgnoreCase(CONFIG.getString("artifacts.screenshot.format")),
+                    (float) CONFIG.getDouble("artifacts.screenshot.quality"))
+            .gzipThresholdBytes(CONFIG.getInt("artifacts.gzip.threshold.kb") * 1024)
+            .build() : null;
+
+    @AfterAll
+    public static void flushArtifacts() {
+        if (WRITER == null) {
+            return;
+        }
+        long timeout = CONFIG.getLong("artifacts.flush.timeout.seconds");
+        if (!WRITER.awaitCompletion(Duration.ofSeconds(timeout))) {
+            System.err.println("Not all failure artifacts were written within " + timeout + " s");
+        }
+        System.out.println(WRITER.summary());
+    }
+
+    /**
+     * Снимает состояние браузера; каждая часть снимается независимо, ошибка одной не мешает остальным.
+     */
+    static void captureBrowser(WebDriver driver) {
+        if (WRITER == null || driver == null) {
+            return;
+        }
+        try {
+            WRITER.screenshot("Скриншот при падении", ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+        } catch (Exception e) {
+            System.err.println("Failed to take screenshot: " + e.getMessage());
+        }
+        try {
+            WRITER.text("HTML страницы при падении", "text/html", "html",
+                    "<!-- " + driver.getCurrentUrl() + " -->\n" + driver.getPageSource());
+        } catch (Exception e) {
+            System.err.println("Failed to get page source: " + e.getMessage());
+        }
+        try {
+            StringBuilder console = new StringBuilder();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(entry).append('\n');
+            }
+            if (console.length() > 0) {
+                WRITER.text("Консоль браузера", "text/plain", "txt", console.toString());
+            }
+        } catch (Exception e) {
+            // Журнал консоли доступен не во всех браузерах (например, Firefox)
+            System.out.println("Browser console log is not available: " + e.getMessage());
+        }
+    }
+
+    static void attachText(String name, String text) {
+        if (WRITER != null) {
+            WRITER.text(name, "text/plain", "txt", text);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.ibs.steps;
+
+import io.cucumber.java.BeforeAll;
+import org.ibs.config.TestConfig;
+import org.ibs.preflight.CircuitBreaker;
+import org.ibs.preflight.Dependency;
+import org.ibs.preflight.Preflight;
+import org.ibs.preflight.ProbeResult;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Проверка инфраструктуры перед прогоном. Перед первым сценарием параллельно проверяются
+ * Selenoid, страница регистрации и сервер БД; недоступная зависимость сразу открывает свой
+ * {@link CircuitBreaker}, и хуки, подключающиеся к ней, помечают сценарии пропущенными с причиной
+ * вместо того, чтобы каждый ждал собственного таймаута. Сценарии сами сообщают предохранителям
+ * о неудачных подключениях, поэтому отказ посреди прогона тоже отсекает оставшиеся сценарии.
+ */
+public class PreflightHooks {
+
+    private static final TestConfig CONFIG = TestConfig.get();
+
+    @BeforeAll
+    public static void checkInfrastructure() {
+        int threshold = CONFIG.getInt("preflight.breaker.threshold");
+        long openMillis = CONFIG.getLong("preflight.breaker.open.seconds") * 1000;
+        for (Dependency dependency : Dependency.values()) {
+            CircuitBreaker.of(dependency).configure(threshold, openMillis);
+        }
+        if (!CONFIG.getBoolean("preflight.enabled")) {
+            return;
+        }
+
+        Preflight preflight = new Preflight(
+                CONFIG.getMillis("preflight.timeout.ms"));
+        if (CONFIG.isSelenoid()) {
+            preflight.http(Dependency.SELENOID,
+                    CONFIG.getString("selenoid.url") + "/status");
+        }
+        if (!CONFIG.isRegistrationStandIn()) {
+            preflight.http(Dependency.REGISTRATION_PAGE, RegistrationTarget.registerUrl(CONFIG));
+        }
+        if (!CONFIG.isEmbeddedDatabase()) {
+            URI server = h2Server(CONFIG.getDbUrl());
+            if (server != null) {
+                preflight.tcp(Dependency.DATABASE, server.getHost(), server.getPort() > 0 ? server.getPort() : 9092);
+            }
+        }
+
+        List<ProbeResult> results = preflight.run();
+        if (results.isEmpty()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("Проверка инфраструктуры перед прогоном:");
+        for (ProbeResult result : results) {
+            report.append("\n  ").append(result);
+        }
+        System.out.println(report);
+        for (ProbeResult result : results) {
+            if (!result.isAvailable()) {
+                CircuitBreaker.of(result.getDependency()).trip(result.getDetails());
+            }
+        }
+    }
+
+    /**
+     * Хост и порт сервера из jdbc:h2:tcp://host[:port]/..., для остальных URL проверка не выполняется.
+     */
+    private static URI h2Server(String url) {
+        String prefix = "jdbc:h2:tcp://";
+        if (!url.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return URI.create("tcp://" + url.substring(prefix.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.ibs.steps;
+
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Step;
+import org.ibs.config.TestConfig;
+import org.ibs.forms.RegistrationData;
+import org.ibs.http.RegistrationClient;
+import org.ibs.http.RegistrationForm;
+import org.ibs.http.RegistrationOutcome;
+import org.ibs.load.LoadReport;
+import org.ibs.load.LoadRunner;
+import org.ibs.load.LoadScenario;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузка на страницу регистрации без браузера: каждый пользователь открывает страницу,
+ * получает cookie сессии и register_token и отправляет ту же форму, что и сценарии registration.feature.
+ * Цель задается registration.target (см. {@link RegistrationTarget}); на внешний стенд
+ * нагрузка идет только при явном http.load.allow.remote=true.
+ */
+public class RegistrationLoadSteps {
+
+    private static final TestConfig CONFIG = TestConfig.get();
+
+    private LoadReport loadReport;
+
+    @When("Я отправляю по HTTP форму регистрации с валидными данными от {int} пользователей в течение {int} секунд")
+    @Step("HTTP нагрузка: валидные данные, по времени")
+    public void submitValidDataForDuration(int users, int seconds) throws Exception {
+        runLoad(RegistrationData::valid, RegistrationOutcome.Verdict.ACCEPTED, users, Duration.ofSeconds(seconds), 0);
+    }
+
+    @When("Я отправляю по HTTP форму регистрации с валидными данными от {int} пользователей по {int} итераций")
+    @Step("HTTP нагрузка: валидные данные, по числу итераций")
+    public void submitValidDataForIterations(int users, int iterations) throws Exception {
+        runLoad(RegistrationData::valid, RegistrationOutcome.Verdict.ACCEPTED, users, null, iterations);
+    }
+
+    @When("Я отправляю по HTTP форму регистрации с невалидным email от {int} пользователей в течение {int} секунд")
+    @Step("HTTP нагрузка: невалидный email, по времени")
+    public void submitInvalidEmailForDuration(int users, int seconds) throws Exception {
+        runLoad(RegistrationData::invalidEmail, RegistrationOutcome.Verdict.REJECTED, users, Duration.ofSeconds(seconds), 0);
+    }
+
+    @When("Я отправляю по HTTP форму регистрации с невалидным email от {int} пользователей по {int} итераций")
+    @Step("HTTP нагрузка: невалидный email, по числу итераций")
+    public void submitInvalidEmailForIterations(int users, int iterations) throws Exception {
+        runLoad(RegistrationData::invalidEmail, RegistrationOutcome.Verdict.REJECTED, users, null, iterations);
+    }
+
+    @Then("HTTP нагрузка на регистрацию должна завершиться без ошибок")
+    @Step("Проверка результатов HTTP нагрузки")
+    public void verifyHttpLoadFinishedWithoutErrors() {
+        assertTrue(loadReport.getIterations() > 0, "Нагрузочный прогон должен выполнить хотя бы одну итерацию");
+        assertEquals(0, loadReport.getFailedIterations(),
+                "Отправки формы регистрации завершились с ошибками: " + loadReport.getErrorSamples());
+    }
+
+    // Вспомогательные методы
+    private void runLoad(Supplier<RegistrationData> data, RegistrationOutcome.Verdict expected,
+                         int users, Duration duration, int iterations) throws Exception {
+        if (!CONFIG.isRegistrationStandIn() && !CONFIG.getBoolean("http.load.allow.remote")) {
+            throw new IllegalStateException("HTTP load against registration.target="
+                    + CONFIG.getString("registration.target") + " is disabled: use -Dregistration.target=standin"
+                    + " or opt in with -Dhttp.load.allow.remote=true");
+        }
+        URI registerUri = URI.create(RegistrationTarget.registerUrl(CONFIG));
+        Duration timeout = CONFIG.getSeconds("http.load.timeout.seconds");
+        HttpClient http = RegistrationClient.newHttpClient(timeout);
+        System.out.println("HTTP нагрузка на " + registerUri + ": " + users + " пользователей");
+
+        LoadScenario scenario = registrationIteration(http, registerUri, timeout, data, expected);
+        loadReport = duration != null
+                ? LoadRunner.runForDuration(users, duration, scenario)
+                : LoadRunner.runIterations(users, iterations, scenario);
+        reportLoad(loadReport);
+    }
+
+    // Итерация - новый посетитель со своей сессией: открытие страницы и отправка формы
+    private static LoadScenario registrationIteration(HttpClient http, URI registerUri, Duration timeout,
+                                                      Supplier<RegistrationData> data,
+                                                      RegistrationOutcome.Verdict expected) {
+        return context -> {
+            RegistrationClient client = new RegistrationClient(http, registerUri, timeout);
+            RegistrationForm form = context.measure("open", client::openForm);
+            context.measure("submit", () -> {
+                RegistrationOutcome outcome = client.submit(form, data.get());
+                if (outcome.getVerdict() != expected) {
+                    throw new IllegalStateException("Ожидался результат " + expected + ", получен " + outcome);
+                }
+                return outcome;
+            });
+        };
+    }
+
+    @Step("Результат HTTP нагрузки")
+    private void reportLoad(LoadReport report) {
+        String text = report.format();
+        System.out.print(text);
+        Allure.addAttachment("HTTP нагрузка на регистрацию", text);
+    }
+}
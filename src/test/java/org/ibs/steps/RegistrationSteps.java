@@ -2,327 +2,235 @@ package org.ibs.steps;
 
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
 import io.cucumber.java.en.Then;
 import io.qameta.allure.Step;
+import org.ibs.config.TestConfig;
+import org.ibs.driver.DriverPool;
+import org.ibs.driver.DriverSettings;
+import org.ibs.driver.PooledSession;
+import org.ibs.forms.BatchFormFiller;
+import org.ibs.forms.RegistrationData;
+import org.ibs.preflight.CircuitBreaker;
+import org.ibs.preflight.Dependency;
+import org.ibs.probes.PageProbe;
+import org.ibs.probes.ProbeVerdict;
+import org.ibs.waits.Waits;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.remote.DesiredCapabilities;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.TimeoutException;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
-import java.io.InputStream;
-import java.util.Properties;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+/**
+ * Cucumber создает новый экземпляр класса шагов для каждого сценария в его собственном потоке,
+ * поэтому поля ниже принадлежат одному сценарию и не должны становиться статическими.
+ */
 public class RegistrationSteps {
 
+    private CompletableFuture<PooledSession> sessionFuture;
+    private PooledSession session;
     private WebDriver driver;
-    private WebDriverWait wait;
+    private Waits waits;
     private Actions actions;
-    private Properties properties;
 
-    private static final String BASE_URL = "http://217.74.37.176";
-    private static final String REGISTER_URL = BASE_URL + "/?route=account/register&language=ru-ru";
-    private static final Duration IMPLICIT_WAIT = Duration.ofSeconds(10);
+    private static final TestConfig CONFIG = TestConfig.get();
+    private static final DriverPool POOL = DriverPool.getInstance();
+    private static final DriverSettings DRIVER_SETTINGS = POOL.getSettings();
+    private static final AtomicBoolean PREWARM_STARTED = new AtomicBoolean();
+
     private static final Duration EXPLICIT_WAIT = Duration.ofSeconds(15);
+    private static final Duration DOM_QUIET_PERIOD = Duration.ofMillis(100);
 
     // Локаторы
-    private static final By FIRST_NAME_INPUT = By.id("input-firstname");
-    private static final By LAST_NAME_INPUT = By.id("input-lastname");
-    private static final By EMAIL_INPUT = By.id("input-email");
-    private static final By PASSWORD_INPUT = By.id("input-password");
-    private static final By NEWSLETTER_CHECKBOX = By.id("input-newsletter");
-    private static final By AGREE_CHECKBOX = By.xpath("//input[@name='agree']");
+    private static final String FIRST_NAME_SELECTOR = "#input-firstname";
+    private static final String LAST_NAME_SELECTOR = "#input-lastname";
+    private static final String EMAIL_SELECTOR = "#input-email";
+    private static final String PASSWORD_SELECTOR = "#input-password";
+    private static final String NEWSLETTER_SELECTOR = "#input-newsletter";
+    private static final String AGREE_SELECTOR = "input[name='agree']";
+
+    private static final By FIRST_NAME_INPUT = By.cssSelector(FIRST_NAME_SELECTOR);
+    private static final By LAST_NAME_INPUT = By.cssSelector(LAST_NAME_SELECTOR);
+    private static final By EMAIL_INPUT = By.cssSelector(EMAIL_SELECTOR);
+    private static final By PASSWORD_INPUT = By.cssSelector(PASSWORD_SELECTOR);
+    private static final By NEWSLETTER_CHECKBOX = By.cssSelector(NEWSLETTER_SELECTOR);
+    private static final By AGREE_CHECKBOX = By.cssSelector(AGREE_SELECTOR);
     private static final By CONTINUE_BUTTON = By.xpath("//button[text()='Продолжить']");
-    private static final By ERROR_ELEMENTS = By.cssSelector(".alert-danger, .text-danger, .has-error");
-    private static final By SUCCESS_MESSAGE = By.cssSelector(".alert-success, .success, [class*='success']");
-
-    @Before
-    public void setUp() {
-        loadProperties();
-    }
-
-    @After
-    public void tearDown() {
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                System.err.println("Error during driver quit: " + e.getMessage());
-            }
+    private static final String ERROR_SELECTOR = ".alert-danger, .text-danger, .has-error";
+    private static final String SUCCESS_SELECTOR = ".alert-success, .success, [class*='success']";
+
+    // Признаки исхода регистрации проверяются в браузере одним скриптом
+    private static final PageProbe FAILURE_PROBE = new PageProbe()
+            .urlContains("register")
+            .selector(ERROR_SELECTOR)
+            .text("ошибка")
+            .text("error");
+    private static final PageProbe SUCCESS_PROBE = new PageProbe()
+            .urlContains("success")
+            .selector(SUCCESS_SELECTOR)
+            .urlContains("account/success")
+            .text("Ваш аккаунт создан")
+            .text("Account Created");
+    private static final PageProbe STILL_ON_FORM_PROBE = new PageProbe()
+            .urlContains("register")
+            .selector(ERROR_SELECTOR);
+
+    @Before(value = "@UI", order = 1)
+    public void requestBrowserSession() {
+        // При недоступном Selenoid или стенде сценарий пропускается до запроса сессии
+        if (CONFIG.isSelenoid()) {
+            CircuitBreaker.abortIfAnyOpen(Dependency.SELENOID, Dependency.REGISTRATION_PAGE);
+        } else {
+            CircuitBreaker.abortIfAnyOpen(Dependency.REGISTRATION_PAGE);
         }
+        // Сессия создается в фоне, шаг открытия страницы только дожидается ее
+        sessionFuture = POOL.borrowAsync();
+        prewarmBrowsers();
     }
 
-    private void loadProperties() {
-        properties = new Properties();
-
-        // Сначала загружаем config.properties
-        loadConfigFromFile();
-
-        // Затем переопределяем selenoid.browser из Jenkins
-        overrideBrowserFromJenkins();
-    }
-
-    private void loadConfigFromFile() {
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("config.properties")) {
-            if (input != null) {
-                properties.load(input);
-            } else {
-                setDefaultProperties();
-            }
-        } catch (Exception e) {
-            setDefaultProperties();
+    // Прогрев запускается первым UI-сценарием и готовит сессии для сценариев, которые стартуют одновременно с ним:
+    // driver.prewarm.count - сколько сессий нужно сразу, включая уже зарезервированную сессию этого сценария.
+    // При последовательном прогоне следующий сценарий получит освободившуюся сессию первого, поэтому
+    // дополнительные сессии запускаются только при параллельном прогоне и не больше числа потоков минус один
+    private static void prewarmBrowsers() {
+        if (!DRIVER_SETTINGS.isPrewarmEnabled() || !PREWARM_STARTED.compareAndSet(false, true)) {
+            return;
         }
-    }
-
-    private void overrideBrowserFromJenkins() {
-        // Получаем браузер из Jenkins
-        String jenkinsBrowser = getBrowserFromJenkins();
-
-        if (jenkinsBrowser != null) {
-            properties.setProperty("selenoid.browser", jenkinsBrowser);
+        int extra = Math.min(DRIVER_SETTINGS.getPrewarmCount(), parallelScenarios()) - 1;
+        if (extra > 0) {
+            POOL.prewarm(extra);
         }
     }
 
-    private String getBrowserFromJenkins() {
-        // Проверяем переменные окружения Jenkins
-        String browser = System.getenv("BROWSER");
-        if (browser != null && !browser.trim().isEmpty()) {
-            return browser.toLowerCase();
-        }
-
-        // Проверяем системные свойства (через -D параметр)
-        browser = System.getProperty("browser");
-        if (browser != null && !browser.trim().isEmpty()) {
-            return browser.toLowerCase();
+    // Сколько сценариев Cucumber выполняется одновременно, по настройкам cucumber.execution.parallel.* из pom.xml
+    private static int parallelScenarios() {
+        if (!Boolean.parseBoolean(System.getProperty("cucumber.execution.parallel.enabled"))) {
+            return 1;
         }
-
-        // Проверяем другие возможные имена параметров
-        String[] possibleParams = {"BROWSER", "TEST_BROWSER", "SELENOID_BROWSER"};
-        for (String param : possibleParams) {
-            // Проверяем переменные окружения
-            String envValue = System.getenv(param);
-            if (envValue != null && !envValue.trim().isEmpty()) {
-                return envValue.toLowerCase();
-            }
-
-            // Проверяем системные свойства
-            String propValue = System.getProperty(param);
-            if (propValue != null && !propValue.trim().isEmpty()) {
-                return propValue.toLowerCase();
-            }
+        if ("fixed".equalsIgnoreCase(System.getProperty("cucumber.execution.parallel.config.strategy"))) {
+            return Math.max(1, Integer.parseInt(
+                    System.getProperty("cucumber.execution.parallel.config.fixed.parallelism", "1")));
         }
-
-        return null; // Не переопределяем, используем значение из config.properties
+        double factor = Double.parseDouble(System.getProperty("cucumber.execution.parallel.config.dynamic.factor", "1"));
+        return Math.max(1, (int) (factor * Runtime.getRuntime().availableProcessors()));
     }
 
-    private void setDefaultProperties() {
-        if (!properties.containsKey("run.mode")) {
-            properties.setProperty("run.mode", "selenoid");
-        }
-        if (!properties.containsKey("selenoid.url")) {
-            properties.setProperty("selenoid.url", "http://applineselenoid.fvds.ru:4444/wd/hub");
-        }
-        if (!properties.containsKey("selenoid.browser")) {
-            properties.setProperty("selenoid.browser", "chrome");
+    @After
+    public void tearDown(Scenario scenario) {
+        if (session == null && sessionFuture != null) {
+            // Сценарий не дошел до открытия страницы - возвращаем зарезервированную сессию в пул
+            sessionFuture.thenAccept(s -> POOL.release(s, false));
         }
-        if (!properties.containsKey("browser.version")) {
-            properties.setProperty("browser.version", "latest");
+        sessionFuture = null;
+        if (scenario.isFailed() && driver != null) {
+            // Снимается до возврата сессии в пул, пока страница еще открыта
+            FailureArtifacts.captureBrowser(driver);
         }
-        if (!properties.containsKey("enable.vnc")) {
-            properties.setProperty("enable.vnc", "true");
+        if (waits != null) {
+            String report = waits.report();
+            System.out.println("Ожидания сценария '" + scenario.getName() + "':\n" + report);
+            scenario.attach(report, "text/plain", "Ожидания");
         }
-        if (!properties.containsKey("enable.video")) {
-            properties.setProperty("enable.video", "false");
+        if (session != null && session.getCommandLog() != null) {
+            String summary = session.getCommandLog().summary(DRIVER_SETTINGS.getInstrumentTop());
+            System.out.println("Команды WebDriver сценария '" + scenario.getName() + "':\n" + summary);
+            scenario.attach(summary, "text/plain", "Команды WebDriver");
         }
-        if (!properties.containsKey("local.browser")) {
-            properties.setProperty("local.browser", "chrome");
+        if (session != null && session.getNetworkLog() != null) {
+            String summary = session.getNetworkLog().summary(DRIVER_SETTINGS.getInstrumentTop());
+            System.out.println("Сетевой профиль сценария '" + scenario.getName() + "':\n" + summary);
+            scenario.attach(summary, "text/plain", "Заблокированные запросы");
         }
-        if (!properties.containsKey("local.headless")) {
-            properties.setProperty("local.headless", "true");
+        if (session != null) {
+            try {
+                POOL.release(session, scenario.isFailed());
+            } catch (Exception e) {
+                System.err.println("Error during driver release: " + e.getMessage());
+            } finally {
+                session = null;
+                driver = null;
+                waits = null;
+                actions = null;
+            }
         }
     }
 
     @Given("Я открываю страницу регистрации")
     @Step("Открытие страницы регистрации")
     public void openRegistrationPage() {
+        // Неудача до перехода на страницу - отказ Selenoid (в режиме local не учитывается), после - стенда
+        boolean selenoid = CONFIG.isSelenoid();
+        Dependency stage = selenoid ? Dependency.SELENOID : null;
+        // Зарезервированная сессия с этого момента принадлежит полю session: tearDown не должен
+        // возвращать ее в пул повторно, даже если ниже она уже закрыта как упавшая
+        CompletableFuture<PooledSession> reserved = sessionFuture;
+        sessionFuture = null;
         try {
-            String runMode = properties.getProperty("run.mode", "local");
-
-            if ("selenoid".equalsIgnoreCase(runMode)) {
-                driver = initRemoteDriver();
-            } else {
-                driver = createLocalDriver();
+            session = reserved != null
+                    ? DriverPool.await(reserved)
+                    : POOL.borrow();
+            driver = session.getDriver();
+            if (selenoid) {
+                CircuitBreaker.of(Dependency.SELENOID).recordSuccess();
+            }
+            if (session.getCommandLog() != null) {
+                // Команды очистки сессии после предыдущего сценария в сводку не попадают
+                session.getCommandLog().reset();
+            }
+            if (session.getNetworkLog() != null) {
+                session.getNetworkLog().reset();
             }
 
-            wait = new WebDriverWait(driver, EXPLICIT_WAIT);
+            // Только явные ожидания: implicit wait выключается внутри Waits
+            waits = new Waits(driver, EXPLICIT_WAIT);
             actions = new Actions(driver);
 
             driver.manage().window().maximize();
-            driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
 
-            driver.get(REGISTER_URL);
+            stage = Dependency.REGISTRATION_PAGE;
+            driver.get(RegistrationTarget.registerUrl(CONFIG));
             waitForPageToLoad();
+            CircuitBreaker.of(Dependency.REGISTRATION_PAGE).recordSuccess();
 
         } catch (Exception e) {
-            if (driver != null) {
-                driver.quit();
+            if (stage != null) {
+                CircuitBreaker.of(stage).recordFailure(CircuitBreaker.describe(e));
             }
+            POOL.release(session, true);
+            session = null;
+            driver = null;
             throw new RuntimeException("Failed to initialize WebDriver: " + e.getMessage(), e);
         }
     }
 
-    /**
-     * Инициализация удаленного драйвера с использованием Desired Capabilities
-     */
-    private WebDriver initRemoteDriver() throws MalformedURLException {
-        String remoteUrl = properties.getProperty("selenoid.url");
-        if (remoteUrl == null || remoteUrl.trim().isEmpty()) {
-            throw new RuntimeException("Remote URL (selenoid.url) is not specified");
-        }
-
-        String browserName = properties.getProperty("selenoid.browser", "chrome");
-        String browserVersion = properties.getProperty("browser.version", "latest");
-        boolean enableVNC = Boolean.parseBoolean(properties.getProperty("enable.vnc", "true"));
-        boolean enableVideo = Boolean.parseBoolean(properties.getProperty("enable.video", "false"));
-
-        DesiredCapabilities capabilities = new DesiredCapabilities();
-        capabilities.setBrowserName(browserName);
-
-        if (!"latest".equals(browserVersion)) {
-            capabilities.setVersion(browserVersion);
-        }
-
-        Map<String, Object> selenoidOptions = new HashMap<>();
-        selenoidOptions.put("enableVNC", enableVNC);
-        selenoidOptions.put("enableVideo", enableVideo);
-        selenoidOptions.put("name", "Registration Tests - " + browserName);
-
-        capabilities.setCapability("acceptInsecureCerts", true);
-        capabilities.setCapability("selenoid:options", selenoidOptions);
-
-        switch (browserName.toLowerCase()) {
-            case "chrome":
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--no-sandbox");
-                chromeOptions.addArguments("--disable-dev-shm-usage");
-                chromeOptions.addArguments("--headless");
-                chromeOptions.addArguments("--window-size=1920,1080");
-                chromeOptions.addArguments("--remote-allow-origins=*");
-                capabilities.setCapability(ChromeOptions.CAPABILITY, chromeOptions);
-                break;
-
-            case "firefox":
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.addArguments("--headless");
-                firefoxOptions.addArguments("--width=1920");
-                firefoxOptions.addArguments("--height=1080");
-                capabilities.setCapability(FirefoxOptions.FIREFOX_OPTIONS, firefoxOptions);
-                break;
-
-            default:
-                throw new IllegalArgumentException("Unsupported browser: " + browserName);
-        }
-
-        return new RemoteWebDriver(new URL(remoteUrl), capabilities);
-    }
-
-    private WebDriver createLocalDriver() {
-        try {
-            String browser = properties.getProperty("local.browser", "chrome");
-            boolean headless = Boolean.parseBoolean(properties.getProperty("local.headless", "true"));
-
-            switch (browser.toLowerCase()) {
-                case "chrome":
-                    return createLocalChromeDriver(headless);
-                case "firefox":
-                    return createLocalFirefoxDriver(headless);
-                default:
-                    throw new IllegalArgumentException("Unsupported browser: " + browser);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create Local driver: " + e.getMessage(), e);
-        }
-    }
-
-    private WebDriver createLocalFirefoxDriver(boolean headless) {
-        FirefoxOptions options = new FirefoxOptions();
-        if (headless) {
-            options.addArguments("--headless");
-        }
-        options.addArguments("--width=1920");
-        options.addArguments("--height=1080");
-        return new FirefoxDriver(options);
-    }
-
-    private WebDriver createLocalChromeDriver(boolean headless) {
-        ChromeOptions options = new ChromeOptions();
-        if (headless) {
-            options.addArguments("--headless");
-        }
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--remote-allow-origins=*");
-        return new ChromeDriver(options);
-    }
-
     // Остальные методы без изменений...
     @When("Я заполняю форму регистрации с невалидным email")
     @Step("Заполнение формы с невалидным email")
     public void fillFormWithInvalidEmail() {
-        fillRegistrationForm(
-                "Иван",           // firstName
-                "Иванов",         // lastName
-                "himail.ru",      // email (invalid - no @)
-                "Q1w2e3l",        // password
-                false,            // subscribe
-                true              // agree
-        );
+        fillRegistrationForm(RegistrationData.invalidEmail());
         clickContinueButton();
     }
 
     @When("Я заполняю форму регистрации с цифрами в имени")
     @Step("Заполнение формы с цифрами в имени")
     public void fillFormWithDigitsInName() {
-        fillRegistrationForm(
-                "1234567890",     // firstName (invalid - digits)
-                "Иванов",         // lastName
-                "IvanIvan22222222@mail.ru", // email
-                "Q1w2e3l",        // password
-                false,            // subscribe
-                true              // agree
-        );
+        fillRegistrationForm(RegistrationData.digitsInName());
         clickContinueButton();
     }
 
     @When("Я заполняю форму регистрации с валидными данными")
     @Step("Заполнение формы с валидными данными")
     public void fillFormWithValidData() {
-        String uniqueEmail = "test" + System.currentTimeMillis() + "@mail.ru";
-
-        fillRegistrationForm(
-                "Иван",                    // firstName
-                "Иванов",                  // lastName
-                uniqueEmail,               // email (уникальный)
-                "Q1w2e3r4t5y6u7i8o9p0",   // password
-                false,                     // subscribe
-                true                       // agree
-        );
+        fillRegistrationForm(RegistrationData.valid());
         clickContinueButton();
     }
 
@@ -345,9 +253,19 @@ public class RegistrationSteps {
     }
 
     // Вспомогательные методы
+    private void fillRegistrationForm(RegistrationData data) {
+        fillRegistrationForm(data.getFirstName(), data.getLastName(), data.getEmail(),
+                data.getPassword(), data.isSubscribe(), data.isAgree());
+    }
+
     @Step("Заполнение формы регистрации")
     private void fillRegistrationForm(String firstName, String lastName, String email,
                                       String password, boolean subscribe, boolean agree) {
+        if (CONFIG.is("form.fill.mode", "script")) {
+            fillRegistrationFormWithScript(firstName, lastName, email, password, subscribe, agree);
+            return;
+        }
+
         setInputValue(FIRST_NAME_INPUT, firstName);
         setInputValue(LAST_NAME_INPUT, lastName);
         setInputValue(EMAIL_INPUT, email);
@@ -362,9 +280,38 @@ public class RegistrationSteps {
         }
     }
 
+    @Step("Заполнение формы регистрации одним скриптом")
+    private void fillRegistrationFormWithScript(String firstName, String lastName, String email,
+                                                String password, boolean subscribe, boolean agree) {
+        // Одно ожидание готовности формы вместо ожиданий на каждое поле
+        waits.until("Видимость поля " + FIRST_NAME_INPUT, ExpectedConditions.visibilityOfElementLocated(FIRST_NAME_INPUT));
+
+        BatchFormFiller filler = new BatchFormFiller()
+                .text(FIRST_NAME_SELECTOR, firstName)
+                .text(LAST_NAME_SELECTOR, lastName)
+                .text(EMAIL_SELECTOR, email)
+                .text(PASSWORD_SELECTOR, password);
+        if (subscribe) {
+            filler.checkbox(NEWSLETTER_SELECTOR, true);
+        }
+        if (agree) {
+            filler.checkbox(AGREE_SELECTOR, true);
+        }
+
+        List<String> missing = filler.fill(driver);
+        for (String selector : missing) {
+            if (selector.equals(NEWSLETTER_SELECTOR) || selector.equals(AGREE_SELECTOR)) {
+                System.out.println("Checkbox not found, continuing without it: " + selector);
+            } else {
+                throw new NoSuchElementException("Form field not found: " + selector);
+            }
+        }
+    }
+
     @Step("Установка значения в поле")
     private void setInputValue(By locator, String value) {
-        WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        WebElement element = waits.until("Видимость поля " + locator,
+                ExpectedConditions.visibilityOfElementLocated(locator));
         element.clear();
         element.sendKeys(value);
     }
@@ -372,9 +319,10 @@ public class RegistrationSteps {
     @Step("Установка значения чекбокса с безопасной прокруткой")
     private void setCheckboxValueSafely(By locator, boolean checked) {
         try {
-            WebElement checkbox = wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            WebElement checkbox = waits.until("Наличие чекбокса " + locator,
+                    ExpectedConditions.presenceOfElementLocated(locator));
             scrollToElement(checkbox);
-            wait.until(ExpectedConditions.elementToBeClickable(checkbox));
+            waits.until("Кликабельность чекбокса " + locator, ExpectedConditions.elementToBeClickable(checkbox));
 
             if (checkbox.isSelected() != checked) {
                 try {
@@ -384,7 +332,7 @@ public class RegistrationSteps {
                 }
             }
 
-            wait.until(driver -> checkbox.isSelected() == checked);
+            waits.until("Состояние чекбокса " + locator, driver -> checkbox.isSelected() == checked);
 
         } catch (TimeoutException e) {
             System.out.println("Checkbox interaction timeout, continuing without it: " + locator);
@@ -396,8 +344,7 @@ public class RegistrationSteps {
     @Step("Прокрутка к элементу")
     private void scrollToElement(WebElement element) {
         try {
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center', inline: 'center'});", element);
-            Thread.sleep(500);
+            waits.scrollIntoView(element);
         } catch (Exception e) {
             System.out.println("Scroll failed: " + e.getMessage());
         }
@@ -410,18 +357,24 @@ public class RegistrationSteps {
 
     @Step("Нажатие кнопки 'Продолжить'")
     private void clickContinueButton() {
-        WebElement continueButton = wait.until(ExpectedConditions.elementToBeClickable(CONTINUE_BUTTON));
+        WebElement continueButton = waits.until("Кликабельность кнопки 'Продолжить'",
+                ExpectedConditions.elementToBeClickable(CONTINUE_BUTTON));
         scrollToElement(continueButton);
         continueButton.click();
+
+        // Ответ на отправку формы и отрисовка ошибок, чтобы проверки стартовали с готовой страницы
+        try {
+            waits.networkIdle();
+            waits.domQuiet(DOM_QUIET_PERIOD);
+        } catch (Exception e) {
+            System.out.println("Post-submit wait interrupted: " + e.getMessage());
+        }
     }
 
     @Step("Ожидание загрузки страницы")
     private void waitForPageToLoad() {
         try {
-            wait.until(driver -> {
-                String state = ((JavascriptExecutor) driver).executeScript("return document.readyState;").toString();
-                return state.equals("complete");
-            });
+            waits.pageLoaded();
         } catch (Exception e) {
             System.out.println("Page load wait interrupted: " + e.getMessage());
         }
@@ -430,13 +383,9 @@ public class RegistrationSteps {
     @Step("Проверка неуспешной регистрации")
     private void assertRegistrationFailed(String message) {
         try {
-            boolean isFailed = wait.until(driver ->
-                    driver.getCurrentUrl().contains("register") ||
-                            !driver.findElements(ERROR_ELEMENTS).isEmpty() ||
-                            driver.getPageSource().contains("ошибка") ||
-                            driver.getPageSource().contains("error")
-            );
-            assertTrue(isFailed, message);
+            ProbeVerdict verdict = waits.until("Признаки неуспешной регистрации", FAILURE_PROBE::matchOrNull);
+            System.out.println("Registration failure indicator: " + verdict);
+            assertTrue(verdict.isMatched(), message);
         } catch (TimeoutException e) {
             fail(message + " - Timeout waiting for failure indicators");
         }
@@ -445,18 +394,12 @@ public class RegistrationSteps {
     @Step("Проверка успешной регистрации")
     private void assertRegistrationSuccessful(String message) {
         try {
-            boolean isSuccessful = wait.until(driver ->
-                    driver.getCurrentUrl().contains("success") ||
-                            !driver.findElements(SUCCESS_MESSAGE).isEmpty() ||
-                            driver.getCurrentUrl().contains("account/success") ||
-                            driver.getPageSource().contains("Ваш аккаунт создан") ||
-                            driver.getPageSource().contains("Account Created")
-            );
-            assertTrue(isSuccessful, message);
+            ProbeVerdict verdict = waits.until("Признаки успешной регистрации", SUCCESS_PROBE::matchOrNull);
+            System.out.println("Registration success indicator: " + verdict);
+            assertTrue(verdict.isMatched(), message);
         } catch (TimeoutException e) {
-            boolean isSuccessful = !driver.getCurrentUrl().contains("register") &&
-                    driver.findElements(ERROR_ELEMENTS).isEmpty();
-            assertTrue(isSuccessful, message + " (Timeout occurred, but no errors found)");
+            ProbeVerdict failure = STILL_ON_FORM_PROBE.evaluate(driver);
+            assertFalse(failure.isMatched(), message + " (Timeout occurred, but no errors found) - " + failure);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package org.ibs.steps;
+
+import io.cucumber.java.AfterAll;
+import org.ibs.config.TestConfig;
+import org.ibs.standin.RegistrationStandIn;
+
+import java.io.IOException;
+
+/**
+ * Адрес страницы регистрации для UI-сценариев и HTTP нагрузки. registration.target=remote - внешний
+ * стенд из registration.url, standin - локальная замена страницы, которая запускается один раз
+ * на прогон при первом обращении и останавливается после всех сценариев.
+ */
+public class RegistrationTarget {
+
+    @AfterAll
+    public static void stopStandIn() {
+        RegistrationStandIn.stopShared();
+    }
+
+    static String registerUrl(TestConfig config) {
+        if (!config.isRegistrationStandIn()) {
+            return config.getString("registration.url");
+        }
+        try {
+            return RegistrationStandIn.shared(standInBuilder(config)).getRegisterUrl();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start registration stand-in: " + e.getMessage(), e);
+        }
+    }
+
+    private static RegistrationStandIn.Builder standInBuilder(TestConfig config) {
+        return RegistrationStandIn.builder()
+                .bindAddress(config.getString("registration.standin.bind"))
+                .host(config.getString("registration.standin.host"))
+                .port(config.getInt("registration.standin.port"))
+                .threads(config.getInt("registration.standin.threads"))
+                .latency(config.getMillis("registration.standin.latency.ms"),
+                        config.getMillis("registration.standin.latency.jitter.ms"))
+                .rejectDigitsInName(config.getBoolean("registration.standin.reject.digits.in.name"))
+                .minPasswordLength(config.getInt("registration.standin.password.min.length"))
+                .uniqueEmails(config.getBoolean("registration.standin.unique.emails"));
+    }
+}
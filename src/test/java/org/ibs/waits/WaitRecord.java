@@ -0,0 +1,26 @@
+package org.ibs.waits;
+
+/**
+ * Результат одного ожидания: что ждали, сколько это заняло и дождались ли.
+ */
+public final class WaitRecord {
+
+    private final String description;
+    private final long millis;
+    private final boolean satisfied;
+
+    WaitRecord(String description, long millis, boolean satisfied) {
+        this.description = description;
+        this.millis = millis;
+        this.satisfied = satisfied;
+    }
+
+    public String getDescription() { return description; }
+    public long getMillis() { return millis; }
+    public boolean isSatisfied() { return satisfied; }
+
+    @Override
+    public String toString() {
+        return String.format("%6d ms  %s%s", millis, description, satisfied ? "" : " (timeout)");
+    }
+}
@@ -0,0 +1,174 @@
+package org.ibs.waits;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Ожидания без фиксированных пауз. Условия на стороне браузера (окончание прокрутки, загрузка
+ * страницы, завершение сетевых запросов, затишье DOM) ждутся асинхронными скриптами, которые
+ * возвращают управление по событию, остальные условия опрашиваются с коротким интервалом.
+ * Неявное ожидание драйвера должно быть выключено, иначе каждый отрицательный findElements
+ * платит полный implicit wait.
+ *
+ * Каждое ожидание фиксирует фактическую длительность, отчет доступен через {@link #report()}.
+ */
+public class Waits {
+
+    private static final Duration POLLING = Duration.ofMillis(50);
+
+    private static final String SCROLL_INTO_VIEW_SCRIPT =
+            "var element = arguments[0], done = arguments[arguments.length - 1];" +
+            "var lastTop = null, stableFrames = 0;" +
+            "element.scrollIntoView({behavior: 'smooth', block: 'center', inline: 'center'});" +
+            "function check() {" +
+            "  var top = element.getBoundingClientRect().top;" +
+            "  stableFrames = (top === lastTop) ? stableFrames + 1 : 0;" +
+            "  lastTop = top;" +
+            "  if (stableFrames >= 2) { done(true); } else { requestAnimationFrame(check); }" +
+            "}" +
+            "requestAnimationFrame(check);";
+
+    private static final String PAGE_LOADED_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "if (document.readyState === 'complete') { done(true); }" +
+            "else { window.addEventListener('load', function () { done(true); }, {once: true}); }";
+
+    // Счетчик незавершенных fetch/XHR; ставится один раз на страницу
+    private static final String NETWORK_TRACKER_SCRIPT =
+            "if (!window.__ibsNetwork) {" +
+            "  var state = window.__ibsNetwork = {inflight: 0, listeners: []};" +
+            "  var settle = function () {" +
+            "    state.inflight--;" +
+            "    if (state.inflight === 0) { state.listeners.splice(0).forEach(function (l) { l(); }); }" +
+            "  };" +
+            "  if (window.fetch) {" +
+            "    var originalFetch = window.fetch;" +
+            "    window.fetch = function () {" +
+            "      state.inflight++;" +
+            "      return originalFetch.apply(this, arguments).finally(settle);" +
+            "    };" +
+            "  }" +
+            "  var originalSend = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    state.inflight++;" +
+            "    this.addEventListener('loadend', settle, {once: true});" +
+            "    return originalSend.apply(this, arguments);" +
+            "  };" +
+            "}";
+
+    private static final String NETWORK_IDLE_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "var state = window.__ibsNetwork;" +
+            "if (!state || state.inflight === 0) { done(true); } else { state.listeners.push(function () { done(true); }); }";
+
+    private static final String DOM_QUIET_SCRIPT =
+            "var quietMillis = arguments[0], done = arguments[arguments.length - 1];" +
+            "var timer = setTimeout(finish, quietMillis);" +
+            "var observer = new MutationObserver(function () {" +
+            "  clearTimeout(timer);" +
+            "  timer = setTimeout(finish, quietMillis);" +
+            "});" +
+            "function finish() { observer.disconnect(); done(true); }" +
+            "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final List<WaitRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+    public Waits(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        driver.manage().timeouts().scriptTimeout(timeout);
+    }
+
+    /**
+     * Опрос условия до первого непустого/истинного результата. Бросает TimeoutException,
+     * как и {@link WebDriverWait#until}.
+     */
+    public <T> T until(String description, Function<? super WebDriver, T> condition) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout, POLLING);
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            T result = wait.until(condition);
+            satisfied = true;
+            return result;
+        } finally {
+            record(description, start, satisfied);
+        }
+    }
+
+    /**
+     * Плавная прокрутка к элементу; возвращает управление, когда элемент перестал смещаться.
+     */
+    public void scrollIntoView(WebElement element) {
+        runAsync("Прокрутка к элементу", SCROLL_INTO_VIEW_SCRIPT, element);
+    }
+
+    /**
+     * Ожидание события load; после загрузки на страницу ставится счетчик сетевых запросов.
+     */
+    public void pageLoaded() {
+        runAsync("Загрузка страницы", PAGE_LOADED_SCRIPT);
+        ((JavascriptExecutor) driver).executeScript(NETWORK_TRACKER_SCRIPT);
+    }
+
+    /**
+     * Ожидание завершения всех fetch/XHR, начатых после {@link #pageLoaded()}.
+     */
+    public void networkIdle() {
+        runAsync("Завершение сетевых запросов", NETWORK_IDLE_SCRIPT);
+    }
+
+    /**
+     * Ожидание, пока DOM не перестанет меняться в течение quietPeriod.
+     */
+    public void domQuiet(Duration quietPeriod) {
+        runAsync("Затишье DOM", DOM_QUIET_SCRIPT, quietPeriod.toMillis());
+    }
+
+    public List<WaitRecord> getRecords() {
+        synchronized (records) {
+            return new ArrayList<>(records);
+        }
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        long total = 0;
+        for (WaitRecord record : getRecords()) {
+            report.append(record).append('\n');
+            total += record.getMillis();
+        }
+        report.append(String.format("%6d ms  всего", total));
+        return report.toString();
+    }
+
+    private void runAsync(String description, String script, Object... args) {
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+            satisfied = true;
+        } catch (ScriptTimeoutException e) {
+            System.out.println(description + " did not complete within " + timeout.toSeconds() + " s");
+        } finally {
+            record(description, start, satisfied);
+        }
+    }
+
+    private void record(String description, long startNanos, boolean satisfied) {
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        records.add(new WaitRecord(description, millis, satisfied));
+    }
+}
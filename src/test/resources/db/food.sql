@@ -0,0 +1,13 @@
+-- Схема и исходные данные таблицы FOOD для встроенного режима H2 (db.mode=embedded)
+CREATE TABLE IF NOT EXISTS FOOD (
+    FOOD_ID     INT          NOT NULL PRIMARY KEY,
+    FOOD_NAME   VARCHAR(255) NOT NULL,
+    FOOD_TYPE   VARCHAR(255),
+    FOOD_EXOTIC INT          NOT NULL
+);
+
+INSERT INTO FOOD (FOOD_ID, FOOD_NAME, FOOD_TYPE, FOOD_EXOTIC) VALUES
+    (1, 'Апельсин', 'FRUIT', 1),
+    (2, 'Капуста', 'VEGETABLE', 0),
+    (3, 'Помидор', 'VEGETABLE', 0),
+    (4, 'Яблоко', 'FRUIT', 0);
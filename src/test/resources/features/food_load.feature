@@ -0,0 +1,12 @@
+@Load
+Feature: Нагрузочный прогон CRUD операций с товарами
+
+  @TMS-007
+  Scenario: Одновременные CRUD операции с товарами в течение заданного времени
+    When Я выполняю CRUD операции с товарами от 1000 пользователей в течение 30 секунд
+    Then Нагрузочный прогон должен завершиться без ошибок
+
+  @TMS-008
+  Scenario: Одновременные CRUD операции с товарами на заданное число итераций
+    When Я выполняю CRUD операции с товарами от 200 пользователей по 50 итераций
+    Then Нагрузочный прогон должен завершиться без ошибок
@@ -0,0 +1,21 @@
+@Database
+Feature: Массовая загрузка товаров в БД
+
+  @TMS-005
+  Scenario: Пакетная загрузка товаров из таблицы данных
+    Given У меня есть соединение с базой данных
+    When Я загружаю в таблицу FOOD товары:
+      | FOOD_NAME          | FOOD_TYPE | FOOD_EXOTIC |
+      | Яблоко             | FRUIT     | 0           |
+      | Манго              | FRUIT     | 1           |
+      | Морковь            | VEGETABLE | 0           |
+      | Докторская колбаса | MEAT      | 0           |
+    Then В таблице FOOD должно появиться 4 новых товаров
+    And Все загруженные товары должны читаться из таблицы FOOD
+
+  @TMS-006 @Volume
+  Scenario: Загрузка большого объема товаров
+    Given У меня есть соединение с базой данных
+    When Я загружаю в таблицу FOOD 200000 сгенерированных товаров
+    Then В таблице FOOD должно появиться 200000 новых товаров
+    And Все загруженные товары должны читаться из таблицы FOOD
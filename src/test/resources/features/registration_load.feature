@@ -0,0 +1,12 @@
+@Load
+Feature: Нагрузка на регистрацию пользователей без браузера
+
+  @TMS-009
+  Scenario: Одновременная регистрация пользователей с валидными данными
+    When Я отправляю по HTTP форму регистрации с валидными данными от 500 пользователей в течение 30 секунд
+    Then HTTP нагрузка на регистрацию должна завершиться без ошибок
+
+  @TMS-010
+  Scenario: Одновременная отправка формы регистрации с невалидным email
+    When Я отправляю по HTTP форму регистрации с невалидным email от 200 пользователей по 20 итераций
+    Then HTTP нагрузка на регистрацию должна завершиться без ошибок